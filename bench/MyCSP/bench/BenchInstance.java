@@ -0,0 +1,58 @@
+package MyCSP.bench;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+import MyCSP.heuristic.values.InstanceProfile;
+import MyCSP.model.data.CarSequencingInstance;
+import MyCSP.model.data.DataSet;
+import MyCSP.model.data.InstanceReader;
+
+/**
+ * ׼õʵݣ CSPLib.random05  MyData.md_m01ģһInstanceReaderȡ
+ */
+final class BenchInstance {
+
+	final CarSequencingInstance instance;
+	final int nCars, nClasses;
+	final int[] demands;
+
+	BenchInstance(String name) {
+		instance = InstanceReader.cached(DataSet.source(name));
+		nCars = instance.getNbCars();
+		nClasses = instance.getNbClasses();
+		demands = instance.getDemands();
+	}
+
+	InstanceProfile profile() {
+		return new InstanceProfile(instance.getClassOptions(), instance.getOptfreq(), demands);
+	}
+
+	/**
+	 * ǰsizeһֵȡʣ࣬κ
+	 */
+	int[] prefix(int size) {
+		int[] left = demands.clone();
+		int[] seq = new int[size];
+		int c = 0;
+		for (int i = 0; i < size; i++) {
+			while (left[c] == 0) {
+				c = (c + 1) % nClasses;
+			}
+			seq[i] = c;
+			left[c]--;
+			c = (c + 1) % nClasses;
+		}
+		return seq;
+	}
+
+	/**
+	 * ֱӹ̶ǰ׺׼propagate
+	 */
+	void fix(IntVar[] vars, int[] prefix) throws ContradictionException {
+		for (int i = 0; i < prefix.length; i++) {
+			vars[i].instantiateTo(prefix[i], Cause.Null);
+		}
+	}
+}
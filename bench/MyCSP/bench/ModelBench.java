@@ -0,0 +1,91 @@
+package MyCSP.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.chocosolver.samples.AbstractProblem;
+import org.chocosolver.solver.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import MyCSP.model.CarSequencing;
+import MyCSP.model.MyCarSequencing;
+import MyCSP.model.STGCS;
+import MyCSP.model.SumCS;
+
+/**
+ * ģbuildModelĺʱԼʵInstanceReader棬ֻڵһεʱ
+ * ÿģ͵ -d ֻԼݼSTGCSMyCarSequencingCarSequencingCSPLibSumCSData
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBench {
+
+	@State(Scope.Thread)
+	public static class CSPLibModel {
+		@Param({ "STGCS", "MyCarSequencing", "CarSequencing" })
+		String model;
+
+		@Param({ "random05", "random19", "random41", "random75" })
+		String data;
+
+		AbstractProblem problem;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			switch (model) {
+			case "STGCS":
+				problem = new STGCS(new float[1], 0);
+				break;
+			case "MyCarSequencing":
+				problem = new MyCarSequencing(new ArrayList<String>());
+				break;
+			case "CarSequencing":
+				problem = new CarSequencing();
+				break;
+			default:
+				throw new UnsupportedOperationException("ERROR: unknown model: " + model);
+			}
+			problem.readArgs("-d", data);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class DataModel {
+		@Param({ "myPb", "P4_72", "P6_76", "P10_93" })
+		String data;
+
+		AbstractProblem problem;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			problem = new SumCS();
+			problem.readArgs("-d", data);
+		}
+	}
+
+	@Benchmark
+	public Model buildModel(CSPLibModel state) {
+		state.problem.buildModel();
+		return state.problem.getModel();
+	}
+
+	@Benchmark
+	public Model buildSumCS(DataModel state) {
+		state.problem.buildModel();
+		return state.problem.getModel();
+	}
+}
@@ -0,0 +1,121 @@
+package MyCSP.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import MyCSP.constraint.PropEqualX_Y;
+import MyCSP.constraint.PropL1;
+import MyCSP.constraint.globalcardinality.GlobalCardinality;
+
+/**
+ * һĺʱ
+ * ǰ׺ֱӸֵÿεµworldдݣÿζͬһ״̬ʼˡ
+ * ģûΪգֻƴ
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropagatorBench {
+
+	@Param({ "CSPLib.random05", "CSPLib.random41", "CSPLib.ReginPuget1", "MyData.md_m01", "MyData.md_b01" })
+	String instance;
+
+	@Param({ "0", "50" })
+	int prefix; // Ѹֵǰ׺ռİٷֱ
+
+	private IEnvironment env;
+	private Propagator<IntVar> gcc, l1;
+	private PropEqualX_Y[] eq;
+
+	@Setup(Level.Trial)
+	public void setup() throws ContradictionException {
+		BenchInstance data = new BenchInstance(instance);
+		Model model = new Model("PropagatorBench");
+		env = model.getEnvironment();
+		int max = data.nClasses - 1;
+		int[] fixed = data.prefix(data.nCars * prefix / 100);
+
+		// STGCSͬGCCÿĳ
+		IntVar[] seq = model.intVarArray("seq", data.nCars, 0, max, false);
+		int[] values = new int[data.nClasses];
+		IntVar[] cards = new IntVar[data.nClasses];
+		int total = 0;
+		for (int c = 0; c < data.nClasses; c++) {
+			values[c] = c;
+			cards[c] = model.intVar("card_" + c, 0, data.demands[c], false);
+			total += c * data.demands[c];
+		}
+		Constraint gc = new GlobalCardinality(seq, values, cards, GlobalCardinality.FAST);
+		gc.post();
+		gcc = gc.getPropagator(0);
+		data.fix(seq, fixed);
+
+		// ŵƽ̶ֵ
+		IntVar[] avg = model.intVarArray("avg", data.nCars, 0, max, false);
+		l1 = new PropL1(avg, total / data.nCars, true);
+		model.post(new Constraint("L1", l1));
+		data.fix(avg, fixed);
+
+		// ÿһ x = y
+		IntVar[] xs = model.intVarArray("x", data.nCars, 0, max, false);
+		IntVar[] ys = model.intVarArray("y", data.nCars, 0, max, false);
+		eq = new PropEqualX_Y[data.nCars];
+		for (int i = 0; i < data.nCars; i++) {
+			eq[i] = new PropEqualX_Y(xs[i], ys[i]);
+		}
+		model.post(new Constraint("EQ", eq));
+		data.fix(xs, fixed);
+
+		// ʱɴ漤ڴбΪpassive
+		for (Constraint c : model.getCstrs()) {
+			for (Propagator<?> p : c.getPropagators()) {
+				p.setActive();
+			}
+		}
+	}
+
+	@Benchmark
+	public void fastGCC() throws ContradictionException {
+		env.worldPush();
+		gcc.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+		env.worldPop();
+	}
+
+	@Benchmark
+	public void l1() throws ContradictionException {
+		env.worldPush();
+		l1.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+		env.worldPop();
+	}
+
+	@Benchmark
+	public void equalXY() throws ContradictionException {
+		env.worldPush();
+		for (PropEqualX_Y p : eq) {
+			p.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+		}
+		env.worldPop();
+	}
+}
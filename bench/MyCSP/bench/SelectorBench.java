@@ -0,0 +1,82 @@
+package MyCSP.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
+import org.chocosolver.solver.variables.IntVar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import MyCSP.heuristic.SequenceSearch;
+import MyCSP.heuristic.values.InstanceProfile;
+import MyCSP.heuristic.values.SAStandardization;
+import MyCSP.heuristic.values.SUStandardization;
+import MyCSP.heuristic.values.SelectionAggregation;
+import MyCSP.heuristic.variables.Exploration;
+
+/**
+ * ֵѡѸֵǰ׺֮ѡһֵĺʱ
+ * ǰ׺ͳ׼׶Ѿֻͬƴ֡
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectorBench {
+
+	@Param({ "CSPLib.random05", "CSPLib.random41", "CSPLib.ReginPuget1", "MyData.md_m01", "MyData.md_b01" })
+	String instance;
+
+	@Param({ "10", "50", "90" })
+	int prefix; // Ѹֵǰ׺ռİٷֱ
+
+	@Param({ SequenceSearch.AGG, SequenceSearch.SA, SequenceSearch.SU })
+	String heuristic;
+
+	private IntValueSelector selector;
+	private IntVar next; // ǰ׺֮ĵһ
+
+	@Setup(Level.Trial)
+	public void setup() throws ContradictionException {
+		BenchInstance data = new BenchInstance(instance);
+		InstanceProfile profile = data.profile();
+		Model model = new Model("SelectorBench");
+		IntVar[] vars = model.intVarArray("seq", data.nCars, 0, data.nClasses - 1, false);
+		data.fix(vars, data.prefix(data.nCars * prefix / 100));
+		Exploration<IntVar> frontier = new Exploration<>(model);
+		next = frontier.getVariable(vars);
+		switch (heuristic) {
+		case SequenceSearch.AGG:
+			selector = new SelectionAggregation(vars, 0, profile, frontier);
+			break;
+		case SequenceSearch.SA:
+			selector = new SAStandardization(vars, 0, profile, frontier);
+			break;
+		case SequenceSearch.SU:
+			selector = new SUStandardization(vars, 0, profile, frontier);
+			break;
+		default:
+			throw new UnsupportedOperationException("ERROR: unknown heuristic: " + heuristic);
+		}
+		selector.selectValue(next);
+	}
+
+	@Benchmark
+	public int selectValue() {
+		return selector.selectValue(next);
+	}
+}
@@ -1,9 +1,14 @@
 package MyCSP;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import MyCSP.model.data.BinaryInstanceFormat;
+import MyCSP.model.data.CarSequencingInstance;
+
 public class MyRandomDataUpdate {
 	private List<List<Integer>> dataBase;
 	private int sum;
@@ -180,6 +185,24 @@ public class MyRandomDataUpdate {
 
 	}
 
+	// תΪʵͨsatisficõԼ
+	public CarSequencingInstance toInstance(List<List<Integer>> data) {
+		int[] p = new int[numofop], q = new int[numofop];
+		for (int i = 0; i < numofop; i++) {
+			p[i] = CapacityN.get(i);
+			q[i] = CapacityD.get(i);
+		}
+		int[] demands = new int[data.size()];
+		int[][] matrix = new int[data.size()][numofop];
+		for (int c = 0; c < data.size(); c++) {
+			demands[c] = data.get(c).get(0);
+			for (int i = 0; i < numofop; i++) {
+				matrix[c][i] = data.get(c).get(i + 1);
+			}
+		}
+		return new CarSequencingInstance(sum, p, q, demands, matrix);
+	}
+
 	private List<Integer> extractor(List<List<Integer>> mac, int num) {// ȡеһ
 
 		List<Integer> tmp = new ArrayList<Integer>();
@@ -219,12 +242,26 @@ public class MyRandomDataUpdate {
 
 	}
 
-	public static void main(String[] args) {
+	// ޲ʱӡһʵΪ [ʵ] [ļ] ʱɶʵдļ
+	public static void main(String[] args) throws IOException {
 		// TODO Auto-generated method stub
 		// int[] test = {1,2,3,4};
 		// int r = new MyRandomData().sum(test);
 		// System.out.println(r);
 		MyRandomDataUpdate mrd = new MyRandomDataUpdate(10000, 5, 19);
+		if (args.length >= 2) {
+			int count = Integer.parseInt(args[0]);
+			List<CarSequencingInstance> instances = new ArrayList<CarSequencingInstance>();
+			for (int i = 0; i < count; i++) {
+				List<List<Integer>> mdb = mrd.getMyData();
+				while (!mrd.satisfic(mdb)) {
+					mdb = mrd.getMyData();
+				}
+				instances.add(mrd.toInstance(mdb));
+			}
+			BinaryInstanceFormat.write(Paths.get(args[1]), instances);
+			return;
+		}
 		List<List<Integer>> mdb = mrd.getMyData();
 		while (!mrd.satisfic(mdb)) {
 			mdb = mrd.getMyData();
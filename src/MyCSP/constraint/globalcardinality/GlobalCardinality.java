@@ -29,7 +29,6 @@
  */
 package MyCSP.constraint.globalcardinality;
 
-import gnu.trove.map.hash.TIntIntHashMap;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.Propagator;
@@ -47,23 +46,38 @@ import java.util.List;
  */
 public class GlobalCardinality extends Constraint {
 
+	/**
+	 * Basic filter (PropFastGCC): no particular consistency but fast
+	 */
+	public static final String FAST = "FAST";
+	/**
+	 * Flow-based filter (PropFlowGCC): arc consistency on the variables, cardinalities reduced accordingly
+	 */
+	public static final String FLOW = "FLOW";
+
     public GlobalCardinality(IntVar[] vars, int[] values, IntVar[] cards) {
-        super("GCC", createProp(vars, values, cards));
+        this(vars, values, cards, FAST);
     }
 
-	private static Propagator createProp(IntVar[] vars, int[] values, IntVar[] cards) {
+	/**
+	 * @param consistency FAST or FLOW
+	 */
+	public GlobalCardinality(IntVar[] vars, int[] values, IntVar[] cards, String consistency) {
+		super("GCC", createProp(vars, values, cards, consistency));
+	}
+
+	private static Propagator createProp(IntVar[] vars, int[] values, IntVar[] cards, String consistency) {
 		assert values.length == cards.length;
-		TIntIntHashMap map = new TIntIntHashMap();
-		int idx = 0;
-		for (int v : values) {
-			if (!map.containsKey(v)) {
-				map.put(v, idx);
-				idx++;
-			} else {
-				throw new UnsupportedOperationException("ERROR: multiple occurrences of value: " + v);
-			}
+		// dense values are indexed by an array, sparse ones by a hash map
+		ValueIndex index = new ValueIndex(values);
+		switch (consistency) {
+			case FAST:
+				return new PropFastGCC(vars, values, index, cards);
+			case FLOW:
+				return new PropFlowGCC(vars, values, index, cards);
+			default:
+				throw new UnsupportedOperationException("ERROR: unknown consistency: " + consistency);
 		}
-		return new PropFastGCC(vars, values, map, cards);
 	}
 
     public static Constraint reformulate(IntVar[] vars, IntVar[] card, Model model) {
@@ -2,24 +2,30 @@
 package MyCSP.constraint.globalcardinality;
 
 import gnu.trove.list.array.TIntArrayList;
-import gnu.trove.map.hash.TIntIntHashMap;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.chocosolver.util.objects.setDataStructures.SetFactory;
 import org.chocosolver.util.objects.setDataStructures.SetType;
 import org.chocosolver.util.tools.ArrayUtils;
 
+import java.util.BitSet;
 import java.util.Iterator;
 
 /**
  * Propagator for Global Cardinality Constraint (GCC) for integer variables
  * Basic filter: no particular consistency but fast and with a correct checker
+ * <br/>
+ * Fine events: the removed values of a variable are read from its delta monitor,
+ * only the sets of these values are updated and only these values are filtered again.
  *
  * @author Jean-Guillaume Fages
  */
@@ -33,8 +39,15 @@ public class PropFastGCC extends Propagator<IntVar> {
     private int[] values;
     private ISet[] possibles, mandatories;
     private ISet valueToCompute;
-    private TIntIntHashMap map;
+    private ValueIndex lookup;
     private TIntArrayList boundVar;
+    private IIntDeltaMonitor[] idms;
+    private IntProcedure rem_proc;
+    private int varToUpdate;
+    // values whose sets changed since their last filtering
+    private BitSet toFilter;
+    // variables modified by this propagator during a filtering
+    private int[] modified;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -46,11 +59,11 @@ public class PropFastGCC extends Propagator<IntVar> {
      *
      * @param decvars array of integer variables
      * @param restrictedValues array of int
-     * @param map mapping
+     * @param index position of each restricted value
      * @param valueCardinalities array of integer variables
      */
-    public PropFastGCC(IntVar[] decvars, int[] restrictedValues, TIntIntHashMap map, IntVar[] valueCardinalities) {
-        super(ArrayUtils.append(decvars, valueCardinalities), PropagatorPriority.LINEAR, false);
+    public PropFastGCC(IntVar[] decvars, int[] restrictedValues, ValueIndex index, IntVar[] valueCardinalities) {
+        super(ArrayUtils.append(decvars, valueCardinalities), PropagatorPriority.LINEAR, true);
         if (restrictedValues.length != valueCardinalities.length) {
             throw new UnsupportedOperationException();
         }
@@ -59,7 +72,7 @@ public class PropFastGCC extends Propagator<IntVar> {
         this.n2 = values.length;
         this.possibles = new ISet[n2];
         this.mandatories = new ISet[n2];
-        this.map = map;
+        this.lookup = index;
         for (int idx = 0; idx < n2; idx++) {
             mandatories[idx] = SetFactory.makeStoredSet(SetType.BITSET, 0, model);
             possibles[idx] = SetFactory.makeStoredSet(SetType.BITSET, 0, model);
@@ -71,6 +84,13 @@ public class PropFastGCC extends Propagator<IntVar> {
                 boundVar.add(i);
             }
         }
+        this.idms = new IIntDeltaMonitor[n];
+        for (int i = 0; i < n; i++) {
+            idms[i] = vars[i].monitorDelta(this);
+        }
+        this.rem_proc = this::removed;
+        this.toFilter = new BitSet(n2);
+        this.modified = new int[n];
     }
 
     //***********************************************************************************
@@ -89,14 +109,14 @@ public class PropFastGCC extends Propagator<IntVar> {
             IntVar v = vars[i];
             int ub = v.getUB();
             if (v.isInstantiated()) {
-                if (map.containsKey(v.getValue())) {
-                    int j = map.get(v.getValue());
+                int j = lookup.get(v.getValue());
+                if (j != -1) {
                     mandatories[j].add(i);
                 }
             } else {
                 for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
-                    if (map.containsKey(k)) {
-                        int j = map.get(k);
+                    int j = lookup.get(k);
+                    if (j != -1) {
                         possibles[j].add(i);
                     }
                 }
@@ -118,6 +138,107 @@ public class PropFastGCC extends Propagator<IntVar> {
                 }
             }
         }
+        for (int i = 0; i < n; i++) {
+            idms[i].unfreeze();
+        }
+    }
+
+    @Override
+    public void propagate(int varIdx, int mask) throws ContradictionException {
+        toFilter.clear();
+        if (varIdx < n) {
+            varToUpdate = varIdx;
+            idms[varIdx].freeze();
+            idms[varIdx].forEachRemVal(rem_proc);
+            idms[varIdx].unfreeze();
+            if (vars[varIdx].isInstantiated()) {
+                instantiated(varIdx);
+            }
+        } else {
+            toFilter.set(varIdx - n);
+        }
+        for (int i = toFilter.nextSetBit(0); i >= 0; i = toFilter.nextSetBit(0)) {
+            toFilter.clear(i);
+            if (valueToCompute.contains(i)) {
+                filter(i);
+            }
+        }
+        if (boundVar.size() > 0 && filterBounds()) {
+            // the sets of the bounded variables are rebuilt from scratch
+            forcePropagate(PropagatorEventType.FULL_PROPAGATION);
+        }
+    }
+
+    // value removed from varToUpdate
+    private void removed(int value) {
+        int i = lookup.get(value);
+        if (i != -1) {
+            if (possibles[i].remove(varToUpdate)) {
+                toFilter.set(i);
+            }
+        }
+    }
+
+    private void instantiated(int var) {
+        int value = vars[var].getValue();
+        int i = lookup.get(value);
+        if (i != -1) {
+            if (possibles[i].remove(var)) {
+                mandatories[i].add(var);
+                toFilter.set(i);
+            }
+        }
+    }
+
+    // filter the value of index i only, then update the sets of the variables it modified
+    private void filter(int i) throws ContradictionException {
+        vars[n + i].updateLowerBound(mandatories[i].size(), this);
+        vars[n + i].updateUpperBound(mandatories[i].size() + possibles[i].size(), this);
+        if (vars[n + i].isInstantiated()) {
+            int nb = 0;
+            if (possibles[i].size() + mandatories[i].size() == vars[n + i].getLB()) {
+                ISetIterator possIt = possibles[i].iterator();
+                while (possIt.hasNext()) {
+                    int j = possIt.nextInt();
+                    mandatories[i].add(j);
+                    vars[j].instantiateTo(values[i], this);
+                    modified[nb++] = j;
+                }
+                possibles[i].clear();
+                valueToCompute.remove(i);//value[i] restriction entailed
+            } else if (mandatories[i].size() == vars[n + i].getUB()) {
+                ISetIterator possIt = possibles[i].iterator();
+                while (possIt.hasNext()) {
+                    int j = possIt.nextInt();
+                    vars[j].removeValue(values[i], this);
+                    modified[nb++] = j;
+                }
+                possibles[i].clear();
+                valueToCompute.remove(i);//value[i] restriction entailed
+            }
+            for (int k = 0; k < nb; k++) {
+                update(modified[k]);
+            }
+        }
+    }
+
+    // the events of this propagator are not notified to itself: check the other values of var
+    private void update(int var) {
+        IntVar v = vars[var];
+        ISetIterator valIt = valueToCompute.iterator();
+        while (valIt.hasNext()) {
+            int i = valIt.nextInt();
+            if (possibles[i].contains(var)) {
+                if (!v.contains(values[i])) {
+                    possibles[i].remove(var);
+                    toFilter.set(i);
+                } else if (v.isInstantiated()) {
+                    possibles[i].remove(var);
+                    mandatories[i].add(var);
+                    toFilter.set(i);
+                }
+            }
+        }
     }
 
     private boolean filter() throws ContradictionException {
@@ -160,41 +281,29 @@ public class PropFastGCC extends Propagator<IntVar> {
             int var = boundVar.get(i);
             if (!vars[var].isInstantiated()) {
                 int lb = vars[var].getLB();
-                int index = -1;
-                if (map.containsKey(lb)) {
-                    index = map.get(lb);
-                }
+                int index = lookup.get(lb);
                 boolean b = index != -1 && !(possibles[index].contains(var) || mandatories[index].contains(var));
                 while (b) {
                     useful = true;
                     vars[var].removeValue(lb, this);
                     lb = vars[var].getLB();
-                    index = -1;
-                    if (map.containsKey(lb)) {
-                        index = map.get(lb);
-                    }
+                    index = lookup.get(lb);
                     b = index != -1 && !(possibles[index].contains(var) || mandatories[index].contains(var));
                 }
                 int ub = vars[var].getUB();
-                index = -1;
-                if (map.containsKey(ub)) {
-                    index = map.get(ub);
-                }
+                index = lookup.get(ub);
                 b = index != -1 && !(possibles[index].contains(var) || mandatories[index].contains(var));
                 while (b) {
                     useful = true;
                     vars[var].removeValue(ub, this);
                     ub = vars[var].getUB();
-                    index = -1;
-                    if (map.containsKey(ub)) {
-                        index = map.get(ub);
-                    }
+                    index = lookup.get(ub);
                     b = index != -1 && !(possibles[index].contains(var) || mandatories[index].contains(var));
                 }
             } else {
                 int val = vars[var].getValue();
-                if (map.containsKey(val)) {
-                    int index = map.get(val);
+                int index = lookup.get(val);
+                if (index != -1) {
                     if ((!possibles[index].contains(var) && !mandatories[index].contains(var))) {
                         fails(); // TODO: could be more precise, for explanation purpose
                     }
@@ -226,15 +335,15 @@ public class PropFastGCC extends Propagator<IntVar> {
             v = vars[i];
             ub = v.getUB();
             if (v.isInstantiated()) {
-                if (map.containsKey(v.getValue())) {
-                    j = map.get(v.getValue());
+                j = lookup.get(v.getValue());
+                if (j != -1) {
                     min[j]++;
                     max[j]++;
                 }
             } else {
                 for (k = v.getLB(); k <= ub; k = v.nextValue(k)) {
-                    if (map.containsKey(k)) {
-                        j = map.get(k);
+                    j = lookup.get(k);
+                    if (j != -1) {
                         max[j]++;
                     }
                 }
@@ -0,0 +1,531 @@
+package MyCSP.constraint.globalcardinality;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.procedure.IntProcedure;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * Propagator for Global Cardinality Constraint (GCC) for integer variables
+ * Flow-based filter (Regin 96): a feasible flow is maintained between the variables and the values,
+ * with the bounds of the cardinality variables as capacities, and a value is removed from a variable
+ * when their arc does not belong to any strongly connected component of the residual graph.
+ * This ensures arc consistency on the decision variables for the current cardinality bounds.
+ * The bounds of the cardinality variables are then set to the maximum and minimum flow of their value
+ * (bound consistency), until a fix point is reached.
+ * <br/>
+ * The flow is not restored on backtrack: delta monitors unassign a variable when its value is removed,
+ * so that only broken parts of the flow are repaired.
+ * The residual graph is not stored: its arcs are read from the domains (variable to value),
+ * from the lists of variables assigned to each value (value to variable) and from the flow (value to/from sink),
+ * so it is always up to date with the repaired flow and takes O(n + n2) memory.
+ */
+public class PropFlowGCC extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n, n2;
+    private final int[] values;
+    private final ValueIndex lookup;
+    // index of the node gathering the values which are not restricted
+    private final int free;
+    // index of the sink in the residual graph
+    private final int sink;
+
+    // flow: value index assigned to each variable (-1 if none), number of variables per value
+    private final int[] match, flow;
+    // variables assigned to each value, as doubly linked lists
+    private final int[] first, next, prev;
+    private final int[] low, up;
+
+    // variables whose assigned value has been removed since the last propagation
+    private final int[] toRepair;
+    private int nbToRepair;
+    private final boolean[] broken;
+    private final IIntDeltaMonitor[] monitors;
+    private final IntProcedure[] onRemove;
+
+    // augmenting paths
+    private final int[] queue, parent, parentValue;
+    private int head, tail;
+    private final boolean[] visited;
+
+    // strongly connected components of the residual graph (iterative Tarjan):
+    // nodes are the variables, then the values (free included), then the sink
+    private static final int START = Integer.MIN_VALUE, END_OF_LIST = -3, DONE = -4;
+    private final int[] dfsIndex, dfsLow, cursor, stack, calls, scc;
+    private final boolean[] onStack;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Propagator for Global Cardinality Constraint (GCC) for integer variables
+     * Flow-based filter, arc consistent on the decision variables and bound consistent on the cardinalities
+     *
+     * @param decvars array of integer variables
+     * @param restrictedValues array of int
+     * @param index position of each restricted value
+     * @param valueCardinalities array of integer variables
+     */
+    public PropFlowGCC(IntVar[] decvars, int[] restrictedValues, ValueIndex index, IntVar[] valueCardinalities) {
+        super(ArrayUtils.append(decvars, valueCardinalities), PropagatorPriority.QUADRATIC, true);
+        if (restrictedValues.length != valueCardinalities.length) {
+            throw new UnsupportedOperationException();
+        }
+        this.values = restrictedValues;
+        this.lookup = index;
+        this.n = decvars.length;
+        this.n2 = values.length;
+        this.free = n2;
+        this.sink = n + n2 + 1;
+        this.match = new int[n];
+        this.flow = new int[n2 + 1];
+        this.first = new int[n2 + 1];
+        this.next = new int[n];
+        this.prev = new int[n];
+        this.low = new int[n2 + 1];
+        this.up = new int[n2 + 1];
+        this.toRepair = new int[n];
+        this.broken = new boolean[n];
+        this.monitors = new IIntDeltaMonitor[n];
+        this.onRemove = new IntProcedure[n];
+        for (int i = 0; i < n; i++) {
+            monitors[i] = vars[i].monitorDelta(this);
+            final int var = i;
+            onRemove[i] = value -> {
+                if (!broken[var] && match[var] != -1 && indexOf(value) == match[var]) {
+                    broken[var] = true;
+                    toRepair[nbToRepair++] = var;
+                }
+            };
+        }
+        this.queue = new int[n2 + 1];
+        this.parent = new int[n2 + 1];
+        this.parentValue = new int[n2 + 1];
+        this.visited = new boolean[n2 + 1];
+        this.dfsIndex = new int[sink + 1];
+        this.dfsLow = new int[sink + 1];
+        this.cursor = new int[sink + 1];
+        this.stack = new int[sink + 1];
+        this.calls = new int[sink + 1];
+        this.scc = new int[sink + 1];
+        this.onStack = new boolean[sink + 1];
+        reset();
+    }
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        if (vIdx >= n) {// cardinality variables
+            return IntEventType.boundAndInst();
+        }
+        return IntEventType.all();
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        if (idxVarInProp < n) {
+            monitors[idxVarInProp].freeze();
+            monitors[idxVarInProp].forEachRemVal(onRemove[idxVarInProp]);
+            monitors[idxVarInProp].unfreeze();
+        }
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            reset();
+            for (int i = 0; i < n; i++) {
+                monitors[i].unfreeze();
+            }
+        }
+        do {
+            repair();
+            filter();
+        } while (updateCardinalities());
+    }
+
+    // index of a value: its position in values, or the free node
+    private int indexOf(int value) {
+        int j = lookup.get(value);
+        return j == -1 ? free : j;
+    }
+
+    private void reset() {
+        Arrays.fill(match, -1);
+        Arrays.fill(flow, 0);
+        Arrays.fill(first, -1);
+        Arrays.fill(broken, false);
+        nbToRepair = 0;
+    }
+
+    private void assign(int var, int val) {
+        int old = match[var];
+        if (old != -1) {
+            flow[old]--;
+            if (prev[var] == -1) {
+                first[old] = next[var];
+            } else {
+                next[prev[var]] = next[var];
+            }
+            if (next[var] != -1) {
+                prev[next[var]] = prev[var];
+            }
+        }
+        match[var] = val;
+        if (val != -1) {
+            flow[val]++;
+            prev[var] = -1;
+            next[var] = first[val];
+            if (first[val] != -1) {
+                prev[first[val]] = var;
+            }
+            first[val] = var;
+        }
+    }
+
+    //***********************************************************************************
+    // FEASIBLE FLOW
+    //***********************************************************************************
+
+    // restore a flow satisfying the current domains and cardinality bounds
+    private void repair() throws ContradictionException {
+        for (int j = 0; j < n2; j++) {
+            low[j] = vars[n + j].getLB();
+            up[j] = vars[n + j].getUB();
+        }
+        low[free] = 0;
+        up[free] = n;
+        for (int k = 0; k < nbToRepair; k++) {
+            int var = toRepair[k];
+            broken[var] = false;
+            if (match[var] == free && hasFreeValue(var)) {
+                continue;
+            }
+            assign(var, -1);
+        }
+        nbToRepair = 0;
+        for (int j = 0; j < n2; j++) {
+            while (flow[j] > up[j]) {
+                assign(first[j], -1);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (match[i] == -1 && !augment(i)) {
+                fails();
+            }
+        }
+        for (int j = 0; j < n2; j++) {
+            while (flow[j] < low[j]) {
+                if (!raise(j)) {
+                    fails();
+                }
+            }
+        }
+    }
+
+    private boolean hasFreeValue(int var) {
+        IntVar v = vars[var];
+        int ub = v.getUB();
+        for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+            if (lookup.get(k) == -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // find a value for the unassigned variable var, moving other variables along an alternating path
+    private boolean augment(int var) {
+        Arrays.fill(visited, false);
+        head = tail = 0;
+        return shift(search(explore(var, -1)), -1);
+    }
+
+    // decrease the flow of value j by one, moving one of its variables along an alternating path
+    private boolean lower(int j) {
+        Arrays.fill(visited, false);
+        visited[j] = true;
+        head = tail = 0;
+        int found = -1;
+        for (int y = first[j]; y != -1 && found == -1; y = next[y]) {
+            found = explore(y, j);
+        }
+        return shift(search(found), j);
+    }
+
+    // breadth-first search of a value with spare capacity, through the variables of the queued values
+    private int search(int found) {
+        while (found == -1 && head < tail) {
+            int val = queue[head++];
+            for (int y = first[val]; y != -1 && found == -1; y = next[y]) {
+                found = explore(y, val);
+            }
+        }
+        return found;
+    }
+
+    // each variable on the path from root to found leaves its value for the next one
+    private boolean shift(int found, int root) {
+        if (found == -1) {
+            return false;
+        }
+        for (int val = found; val != root; ) {
+            int from = parentValue[val];
+            assign(parent[val], val);
+            val = from;
+        }
+        return true;
+    }
+
+    // visit the values of y, assigned to "from"; returns a value with spare capacity, or -1
+    private int explore(int y, int from) {
+        IntVar v = vars[y];
+        int ub = v.getUB();
+        for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+            int val = indexOf(k);
+            if (val != from && !visited[val]) {
+                visited[val] = true;
+                parent[val] = y;
+                parentValue[val] = from;
+                if (flow[val] < up[val]) {
+                    return val;
+                }
+                queue[tail++] = val;
+            }
+        }
+        return -1;
+    }
+
+    // increase the flow of value j by one, moving variables from values with a surplus
+    private boolean raise(int j) {
+        Arrays.fill(visited, false);
+        visited[j] = true;
+        head = tail = 0;
+        queue[tail++] = j;
+        while (head < tail) {
+            int val = queue[head++];
+            for (int y = 0; y < n; y++) {
+                int from = match[y];
+                if (visited[from] || !vars[y].contains(values[val])) {
+                    continue;
+                }
+                // y may leave "from" for "val"
+                visited[from] = true;
+                parent[from] = y;
+                parentValue[from] = val;
+                if (flow[from] > low[from]) {
+                    for (int cur = from; cur != j; ) {
+                        int to = parentValue[cur];
+                        assign(parent[cur], to);
+                        cur = to;
+                    }
+                    return true;
+                }
+                queue[tail++] = from;
+            }
+        }
+        return false;
+    }
+
+    //***********************************************************************************
+    // FILTERING
+    //***********************************************************************************
+
+    // remove the values whose arc belongs to no strongly connected component of the residual graph
+    private void filter() throws ContradictionException {
+        findSCC();
+        for (int i = 0; i < n; i++) {
+            IntVar v = vars[i];
+            int ub = v.getUB();
+            for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                int val = indexOf(k);
+                if (val != match[i] && scc[i] != scc[n + val]) {
+                    v.removeValue(k, this);
+                }
+            }
+        }
+    }
+
+    private void findSCC() {
+        Arrays.fill(dfsIndex, -1);
+        Arrays.fill(cursor, START);
+        int counter = 0, nbSCC = 0, top = 0;
+        for (int root = 0; root <= sink; root++) {
+            if (dfsIndex[root] != -1) {
+                continue;
+            }
+            int depth = 0;
+            calls[depth++] = root;
+            dfsIndex[root] = dfsLow[root] = counter++;
+            stack[top++] = root;
+            onStack[root] = true;
+            while (depth > 0) {
+                int node = calls[depth - 1];
+                int succ = nextSucc(node);
+                if (succ != -1) {
+                    if (dfsIndex[succ] == -1) {
+                        dfsIndex[succ] = dfsLow[succ] = counter++;
+                        stack[top++] = succ;
+                        onStack[succ] = true;
+                        calls[depth++] = succ;
+                    } else if (onStack[succ]) {
+                        dfsLow[node] = Math.min(dfsLow[node], dfsIndex[succ]);
+                    }
+                } else {
+                    depth--;
+                    if (dfsLow[node] == dfsIndex[node]) {
+                        int w;
+                        do {
+                            w = stack[--top];
+                            onStack[w] = false;
+                            scc[w] = nbSCC;
+                        } while (w != node);
+                        nbSCC++;
+                    }
+                    if (depth > 0) {
+                        int parentNode = calls[depth - 1];
+                        dfsLow[parentNode] = Math.min(dfsLow[parentNode], dfsLow[node]);
+                    }
+                }
+            }
+        }
+    }
+
+    // next successor of node in the residual graph, or -1 when all have been returned
+    private int nextSucc(int node) {
+        if (node < n) {
+            // variable -> values of its domain, but its own
+            IntVar v = vars[node];
+            int ub = v.getUB();
+            int k = cursor[node] == START ? v.getLB() : v.nextValue(cursor[node]);
+            for (; k <= ub; k = v.nextValue(k)) {
+                int val = indexOf(k);
+                if (val != match[node]) {
+                    cursor[node] = k;
+                    return n + val;
+                }
+            }
+            cursor[node] = ub;
+            return -1;
+        }
+        if (node < sink) {
+            // value -> its variables, then the sink if it can take more
+            int j = node - n;
+            int c = cursor[node];
+            if (c == START || c >= 0) {
+                int y = c == START ? first[j] : next[c];
+                if (y != -1) {
+                    cursor[node] = y;
+                    return y;
+                }
+                c = END_OF_LIST;
+            }
+            cursor[node] = DONE;
+            return c == END_OF_LIST && flow[j] < up[j] ? sink : -1;
+        }
+        // sink -> values that can take less
+        for (int j = cursor[node] == START ? 0 : cursor[node] + 1; j <= n2; j++) {
+            if (flow[j] > low[j]) {
+                cursor[node] = j;
+                return n + j;
+            }
+        }
+        cursor[node] = n2;
+        return -1;
+    }
+
+    // bound consistency on the cardinalities: the flow of each value is pushed to its maximum then to its minimum,
+    // the flow stays feasible all along. Returns true if a bound changed
+    private boolean updateCardinalities() throws ContradictionException {
+        boolean again = false;
+        for (int j = 0; j < n2; j++) {
+            IntVar card = vars[n + j];
+            if (card.isInstantiated()) {
+                continue;
+            }
+            while (flow[j] < card.getUB() && raise(j)) {
+                // one more variable on value j
+            }
+            again |= card.updateUpperBound(flow[j], this);
+            while (flow[j] > card.getLB() && lower(j)) {
+                // one less variable on value j
+            }
+            again |= card.updateLowerBound(flow[j], this);
+            low[j] = card.getLB();
+            up[j] = card.getUB();
+        }
+        return again;
+    }
+
+    //***********************************************************************************
+    // INFO
+    //***********************************************************************************
+
+    @Override
+    public ESat isEntailed() {
+        int[] min = new int[n2];
+        int[] max = new int[n2];
+        for (int i = 0; i < n; i++) {
+            IntVar v = vars[i];
+            int ub = v.getUB();
+            if (v.isInstantiated()) {
+                int j = lookup.get(v.getValue());
+                if (j != -1) {
+                    min[j]++;
+                    max[j]++;
+                }
+            } else {
+                for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                    int j = lookup.get(k);
+                    if (j != -1) {
+                        max[j]++;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < n2; i++) {
+            if (vars[n + i].getLB() > max[i] || vars[n + i].getUB() < min[i]) {
+                return ESat.FALSE;
+            }
+        }
+        for (int i = 0; i < n2; i++) {
+            if (!(vars[n + i].isInstantiated() && max[i] == min[i])) {
+                return ESat.UNDEFINED;
+            }
+        }
+        return ESat.TRUE;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder();
+        st.append("PropFlowGCC_(");
+        int i = 0;
+        for (; i < Math.min(4, vars.length); i++) {
+            st.append(vars[i].getName()).append(", ");
+        }
+        if (i < vars.length - 2) {
+            st.append("...,");
+        }
+        st.append(vars[vars.length - 1].getName()).append(")");
+        return st.toString();
+    }
+
+}
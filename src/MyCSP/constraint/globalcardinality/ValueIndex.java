@@ -0,0 +1,64 @@
+package MyCSP.constraint.globalcardinality;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.map.hash.TIntIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Index of the restricted values of a GCC: value -> position in the values array, -1 if not restricted.
+ * <br/>
+ * Dense values (such as class ids 0..nClasses-1) are looked up in an array indexed by value - offset,
+ * sparse values fall back to a hash map.
+ */
+public final class ValueIndex {
+
+    private final int offset;
+    private final int[] dense;
+    private final TIntIntHashMap map;
+
+    /**
+     * @param values restricted values
+     * @throws UnsupportedOperationException if a value occurs several times
+     */
+    public ValueIndex(int[] values) {
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int v : values) {
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        // dense when at least half of the range is used
+        if (values.length > 0 && (long) max - min + 1 <= 2L * values.length) {
+            offset = min;
+            dense = new int[max - min + 1];
+            Arrays.fill(dense, -1);
+            map = null;
+        } else {
+            offset = 0;
+            dense = null;
+            map = new TIntIntHashMap(Constants.DEFAULT_CAPACITY, Constants.DEFAULT_LOAD_FACTOR, -1, -1);
+        }
+        for (int idx = 0; idx < values.length; idx++) {
+            int v = values[idx];
+            if (get(v) != -1) {
+                throw new UnsupportedOperationException("ERROR: multiple occurrences of value: " + v);
+            }
+            if (dense != null) {
+                dense[v - offset] = idx;
+            } else {
+                map.put(v, idx);
+            }
+        }
+    }
+
+    /**
+     * @return the position of value in the values array, -1 if it is not restricted
+     */
+    public int get(int value) {
+        if (dense != null) {
+            value -= offset;
+            return value >= 0 && value < dense.length ? dense[value] : -1;
+        }
+        return map.get(value);
+    }
+}
@@ -0,0 +1,31 @@
+package MyCSP.constraint.sequence;
+
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * Capacity constraint of an option: at most p cars in every q consecutive cars require it.
+ * <br/>
+ * Replaces the decomposition into one sum (or cardinality) constraint per window.
+ */
+public class AtMostSeq extends Constraint {
+
+    /**
+     * @param vars 0/1 variables of one option, in sequence order
+     * @param p    maximum number of ones per window
+     * @param q    window size
+     */
+    public AtMostSeq(IntVar[] vars, int p, int q) {
+        this(vars, new int[]{1}, p, q);
+    }
+
+    /**
+     * @param cars    class variables, in sequence order
+     * @param classes classes requiring the option
+     * @param p       maximum number of such cars per window
+     * @param q       window size
+     */
+    public AtMostSeq(IntVar[] cars, int[] classes, int p, int q) {
+        super("AtMostSeq", new PropAtMostSeq(cars, classes, p, q));
+    }
+}
@@ -0,0 +1,199 @@
+package MyCSP.constraint.sequence;
+
+import org.chocosolver.memory.IStateBitSet;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+
+import java.util.Arrays;
+
+/**
+ * Propagator for the capacity rule "at most p variables take a value of S in every q consecutive variables".
+ * <br/>
+ * A variable is a one as soon as its domain is included in S.
+ * The number of ones of each window is stored and updated when a single variable becomes a one,
+ * so that a propagation only visits the (at most q) windows covering that variable.
+ * When a window reaches p ones, the values of S are removed from its remaining free variables.
+ * <br/>
+ * With 0/1 variables S is {1}; over class variables S is the set of classes requiring an option.
+ */
+public class PropAtMostSeq extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n, p, q;
+    // the values of S
+    private final int[] values;
+    // member[v - offset] is true iff v belongs to S
+    private final boolean[] member;
+    private final int offset;
+    private final int nbWindows;
+    // number of ones in window [w, w+q-1]
+    private final IStateInt[] ones;
+    // variables already counted in the windows
+    private final IStateBitSet counted;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * At most <i>p</i> variables take a value of <i>values</i> in every <i>q</i> consecutive variables of <i>vars</i>
+     *
+     * @param vars   variables, in sequence order
+     * @param values the set S, without duplicates
+     * @param p      maximum number of ones per window
+     * @param q      window size
+     */
+    public PropAtMostSeq(IntVar[] vars, int[] values, int p, int q) {
+        super(vars, PropagatorPriority.LINEAR, true);
+        this.n = vars.length;
+        this.values = values.clone();
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int v : values) {
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        this.offset = min;
+        this.member = new boolean[values.length == 0 ? 0 : max - min + 1];
+        for (int v : values) {
+            member[v - offset] = true;
+        }
+        this.p = p;
+        this.q = q;
+        this.nbWindows = Math.max(0, n - q + 1);
+        this.ones = new IStateInt[nbWindows];
+        for (int w = 0; w < nbWindows; w++) {
+            ones[w] = model.getEnvironment().makeInt(0);
+        }
+        this.counted = model.getEnvironment().makeBitSet(n);
+    }
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return IntEventType.all();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        for (int i = 0; i < n; i++) {
+            if (isOne(i)) {
+                count(i);
+            }
+        }
+        for (int w = 0; w < nbWindows; w++) {
+            if (ones[w].get() == p) {
+                fill(w);
+            }
+        }
+    }
+
+    @Override
+    public void propagate(int idx, int mask) throws ContradictionException {
+        if (!counted.get(idx) && isOne(idx)) {
+            int first = Math.max(0, idx - q + 1);
+            int last = Math.min(idx, nbWindows - 1);
+            count(idx);
+            for (int w = first; w <= last; w++) {
+                if (ones[w].get() == p) {
+                    fill(w);
+                }
+            }
+        }
+    }
+
+    private boolean isOne(int i) {
+        IntVar var = vars[i];
+        int ub = var.getUB();
+        for (int v = var.getLB(); v <= ub; v = var.nextValue(v)) {
+            if (!inS(v)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean inS(int v) {
+        v -= offset;
+        return v >= 0 && v < member.length && member[v];
+    }
+
+    // add variable i to the windows covering it
+    private void count(int i) throws ContradictionException {
+        if (counted.get(i)) {
+            return;
+        }
+        counted.set(i);
+        int first = Math.max(0, i - q + 1);
+        int last = Math.min(i, nbWindows - 1);
+        for (int w = first; w <= last; w++) {
+            if (ones[w].add(1) > p) {
+                fails();
+            }
+        }
+    }
+
+    // window w is full: its other variables cannot take a value of S anymore
+    private void fill(int w) throws ContradictionException {
+        for (int k = w; k < w + q; k++) {
+            if (!counted.get(k) && !vars[k].isInstantiated()) {
+                for (int v : values) {
+                    vars[k].removeValue(v, this);
+                }
+            }
+        }
+    }
+
+    private boolean canBeOne(int i) {
+        IntVar var = vars[i];
+        int ub = var.getUB();
+        for (int v = var.getLB(); v <= ub; v = var.nextValue(v)) {
+            if (inS(v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //***********************************************************************************
+    // INFO
+    //***********************************************************************************
+
+    @Override
+    public ESat isEntailed() {
+        boolean undefined = false;
+        for (int w = 0; w < nbWindows; w++) {
+            int min = 0, max = 0;
+            for (int k = w; k < w + q; k++) {
+                if (isOne(k)) {
+                    min++;
+                }
+                if (canBeOne(k)) {
+                    max++;
+                }
+            }
+            if (min > p) {
+                return ESat.FALSE;
+            }
+            if (max > p) {
+                undefined = true;
+            }
+        }
+        return undefined ? ESat.UNDEFINED : ESat.TRUE;
+    }
+
+    @Override
+    public String toString() {
+        return "PropAtMostSeq(" + Arrays.toString(values) + ", " + p + "/" + q + ", " + vars[0].getName() + ", ..., " + vars[n - 1].getName() + ")";
+    }
+}
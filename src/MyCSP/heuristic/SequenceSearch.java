@@ -0,0 +1,51 @@
+package MyCSP.heuristic;
+
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
+import org.chocosolver.solver.search.strategy.strategy.IntStrategy;
+import org.chocosolver.solver.variables.IntVar;
+
+import MyCSP.heuristic.values.InstanceProfile;
+import MyCSP.heuristic.values.SAStandardization;
+import MyCSP.heuristic.values.SUStandardization;
+import MyCSP.heuristic.values.SelectionAggregation;
+import MyCSP.heuristic.variables.Exploration;
+
+/**
+ * ˳ֵԣExplorationѸֵǰ׺ĩβѡ
+ * ֵѡͬһǰ׺ÿɨС
+ */
+public final class SequenceSearch {
+
+	public static final String AGG = "AGG"; // SelectionAggregation
+	public static final String SA = "SA"; // SAStandardization
+	public static final String SU = "SU"; // SUStandardization
+
+	private SequenceSearch() {
+	}
+
+	/**
+	 * @param vars бȡֵΪ
+	 * @param heuristic ֵѡAGGSA  SU
+	 * @param seed 
+	 * @param profile ʵľ̬Ϣ
+	 */
+	public static IntStrategy sequenceSearch(IntVar[] vars, String heuristic, long seed, InstanceProfile profile) {
+		Exploration<IntVar> frontier = new Exploration<>(vars[0].getModel());
+		IntValueSelector selector;
+		switch (heuristic) {
+		case AGG:
+			selector = new SelectionAggregation(vars, seed, profile, frontier);
+			break;
+		case SA:
+			selector = new SAStandardization(vars, seed, profile, frontier);
+			break;
+		case SU:
+			selector = new SUStandardization(vars, seed, profile, frontier);
+			break;
+		default:
+			throw new UnsupportedOperationException("ERROR: unknown heuristic: " + heuristic);
+		}
+		return Search.intVarSearch(frontier, selector, vars);
+	}
+}
@@ -0,0 +1,173 @@
+package MyCSP.heuristic;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.decision.DecisionPath;
+import org.chocosolver.solver.variables.IntVar;
+
+import MyCSP.heuristic.values.InstanceProfile;
+
+/**
+ * еLNSÿʱſһλãټΥΥȡλã
+ * λù̶ΪĿǰõУԭֵѡ¸ֵ
+ * <br/>
+ * εĳʼΪ󴰿qPATIENCEҲõĽʱrestrictLessӳһq
+ * ҵõĽصʼȡ
+ * ʼУloadFromSolutionĵһ򲻷ſκλãʼоǵһ⡣
+ */
+public final class WindowNeighborhood implements INeighbor {
+
+	private static final int PATIENCE = 10; // ӳǰʧܵ
+
+	private final IntVar[] vars;
+	private final InstanceProfile profile;
+	private final Random random;
+	private final int n, qmax;
+
+	private final int[] best; // Ŀǰõ
+	private int length; // εĳ
+	private int stall; // ʧܵ
+	private boolean loaded; // õģҵĽ
+	private final BitSet relaxed;
+
+	/**
+	 * @param vars бȡֵΪ
+	 */
+	public WindowNeighborhood(IntVar[] vars, InstanceProfile profile, long seed) {
+		this.vars = vars;
+		this.profile = profile;
+		this.random = new Random(seed);
+		n = vars.length;
+		int q = 1;
+		for (int i = 0; i < profile.getNbOptions(); i++) {
+			q = Math.max(q, profile.getQ(i));
+		}
+		qmax = Math.min(q, n);
+		relaxed = new BitSet(n);
+		best = new int[n];
+	}
+
+	@Override
+	public void init() {
+		length = Math.min(2 * qmax, n);
+		stall = 0;
+	}
+
+	@Override
+	public void recordSolution() {
+		for (int k = 0; k < n; k++) {
+			best[k] = vars[k].getValue();
+		}
+		length = Math.min(2 * qmax, n);
+		stall = 0;
+	}
+
+	@Override
+	public void loadFromSolution(Solution solution) {
+		for (int k = 0; k < n; k++) {
+			best[k] = solution.getIntVal(vars[k]);
+		}
+		loaded = true;
+	}
+
+	@Override
+	public void fixSomeVariables(DecisionPath decisionPath) {
+		relaxed.clear();
+		if (loaded) {
+			// һ̶ȫλãȰΪһ
+			loaded = false;
+			fixRest(decisionPath);
+			return;
+		}
+		int start = random.nextInt(n - length + 1);
+		relaxed.set(start, start + length);
+		relaxConflicts(qmax);
+		fixRest(decisionPath);
+	}
+
+	// ûзſλù̶Ϊõ
+	private void fixRest(DecisionPath decisionPath) {
+		for (int k = relaxed.nextClearBit(0); k < n; k = relaxed.nextClearBit(k + 1)) {
+			if (vars[k].contains(best[k])) {
+				decisionPath.pushDecision(decisionPath.makeIntDecision(vars[k], DecisionOperator.int_eq, best[k]));
+			}
+		}
+	}
+
+	// ΥΥſcountҪλ
+	private void relaxConflicts(int count) {
+		int worst = -1, most = 0;
+		for (int i = 0; i < profile.getNbOptions(); i++) {
+			int v = violations(i);
+			if (v > most) {
+				most = v;
+				worst = i;
+			}
+		}
+		if (worst < 0) {
+			return;
+		}
+		int q = Math.min(profile.getQ(worst), n), p = profile.getP(worst);
+		// ΥҪλ
+		BitSet conflicts = new BitSet(n);
+		int ones = 0;
+		for (int k = 0; k < n; k++) {
+			ones += bit(k, worst);
+			if (k >= q) {
+				ones -= bit(k - q, worst);
+			}
+			if (k >= q - 1 && ones > p) {
+				for (int j = k - q + 1; j <= k; j++) {
+					if (bit(j, worst) == 1) {
+						conflicts.set(j);
+					}
+				}
+			}
+		}
+		int size = conflicts.cardinality();
+		for (int c = 0; c < count && size > 0; c++) {
+			int r = random.nextInt(size), k = conflicts.nextSetBit(0);
+			for (; r > 0; r--) {
+				k = conflicts.nextSetBit(k + 1);
+			}
+			relaxed.set(k);
+		}
+	}
+
+	// iϵΥ
+	private int violations(int i) {
+		int q = Math.min(profile.getQ(i), n), p = profile.getP(i);
+		int ones = 0, v = 0;
+		for (int k = 0; k < n; k++) {
+			ones += bit(k, i);
+			if (k >= q) {
+				ones -= bit(k - q, i);
+			}
+			if (k >= q - 1 && ones > p) {
+				v += ones - p;
+			}
+		}
+		return v;
+	}
+
+	private int bit(int k, int i) {
+		return (int) (profile.getMask(best[k]) >>> i) & 1;
+	}
+
+	@Override
+	public void restrictLess() {
+		if (++stall >= PATIENCE) {
+			length = Math.min(length + qmax, n);
+			stall = 0;
+		}
+	}
+
+	@Override
+	public boolean isSearchComplete() {
+		return false;
+	}
+}
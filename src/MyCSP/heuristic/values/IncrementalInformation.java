@@ -0,0 +1,139 @@
+package MyCSP.heuristic.values;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.variables.IntVar;
+
+import MyCSP.heuristic.variables.Exploration;
+
+/**
+ * ɻݵ̬ϢֻͳƴͷʼѸֵǰ׺
+ * ÿξֻ¸ֵıΪ O(¸ֵ * )ʱɻԶָ
+ */
+public class IncrementalInformation {
+
+	private IntVar[] CarSeq; // 
+	private Exploration<IntVar> frontier; // ѡάѸֵǰ׺Ϊnull
+	private InstanceProfile profile; // ʵľ̬Ϣ
+	private int[] delta; // ¸ֵÿĸ
+
+	private IStateInt lastIdx; // ͳƵǰ׺
+	private IStateInt[] used; // ÿѾװ˼
+	private IStateInt[] scanPos, scanCount, scanIndex; // ʣʱɨ״̬
+
+	public IncrementalInformation(IntVar[] vars, InstanceProfile profile) {
+		this(vars, profile, null);
+	}
+
+	/**
+	 * @param frontier ˳ѡѡֱӶȡǰ׺ȶɨ
+	 */
+	public IncrementalInformation(IntVar[] vars, InstanceProfile profile, Exploration<IntVar> frontier) {
+		CarSeq = vars;
+		this.frontier = frontier;
+		this.profile = profile;
+		IEnvironment env = vars[0].getModel().getEnvironment();
+		int length = profile.getNbOptions();
+		delta = new int[length];
+		lastIdx = env.makeInt(0);
+		used = new IStateInt[length];
+		scanPos = new IStateInt[length];
+		scanCount = new IStateInt[length];
+		scanIndex = new IStateInt[length];
+		for (int n = 0; n < length; n++) {
+			used[n] = env.makeInt(0);
+			scanPos[n] = env.makeInt(0);
+			scanCount[n] = env.makeInt(0);
+			scanIndex[n] = env.makeInt(0);
+		}
+	}
+
+	/**
+	 * ͳƽǰѸֵǰ׺ĩβ
+	 */
+	public void update() {
+		int from = lastIdx.get();
+		int to = from;
+		if (frontier != null) {
+			to = frontier.getPrefixLength();
+		} else {
+			while (to < CarSeq.length && CarSeq[to].isInstantiated()) {
+				to++;
+			}
+		}
+		if (to <= from) {
+			return;
+		}
+		for (int m = from; m < to; m++) {
+			profile.getOptions().add(CarSeq[m].getValue(), delta, 1);
+		}
+		for (int n = 0; n < used.length; n++) {
+			if (delta[n] > 0) {
+				used[n].add(delta[n]);
+				delta[n] = 0;
+			}
+			scan(n, to);
+		}
+		lastIdx.set(to);
+	}
+
+	// ϴͣµλüɨ裬ԭȶǰ׺ɨһ
+	private void scan(int n, int length) {
+		int m = scanPos[n].get();
+		if (m >= length) {
+			return;
+		}
+		int count = scanCount[n].get();
+		int index = scanIndex[n].get();
+		int p = profile.getP(n);
+		int q = profile.getQ(n);
+		for (; m < length; m++) {
+			int row = CarSeq[m].getValue();
+			// ѸֵĲһԼ
+			if (p == 1) {
+				if (profile.hasOption(row, n)) {
+					m += q - 1;
+				}
+			} else if (p == 2) {
+				if (profile.hasOption(row, n)) {
+					count++;
+					if (count < 2) {
+						index = m;
+					} else {
+						if (m - index > q - 1) {
+							count = 1;
+							index = m;
+						} else {
+							m = index + q;
+						}
+						count = 0;
+					}
+				}
+			}
+		}
+		scanPos[n].set(m);
+		scanCount[n].set(count);
+		scanIndex[n].set(index);
+	}
+
+	/**
+	 * @return ͳƵǰ׺
+	 */
+	public int getPrefixLength() {
+		return lastIdx.get();
+	}
+
+	/**
+	 * @return optnumѾװĴ
+	 */
+	public int getUsed(int optnum) {
+		return used[optnum].get();
+	}
+
+	/**
+	 * @return optnumӦʣΪ
+	 */
+	public int getSlotava(int optnum) {
+		return profile.getTotal() - scanPos[optnum].get();
+	}
+}
@@ -0,0 +1,126 @@
+package MyCSP.heuristic.values;
+
+import MyCSP.model.data.ClassOptions;
+
+/**
+ * ʵľ̬Ϣ0/1һԼõвٸı䡣
+ * ֵѡÿξʱֱӲظȡ
+ */
+public final class InstanceProfile {
+
+	private final int nClasses, nOptions;
+	private final int[] p, q; // ÿqp
+	private final int[] optionDemand; // ÿ
+	private final int[] capacityRatio; // ÿ q/p
+	private final ClassOptions options; // ÿλʾ
+	private final double[] weight, capacity; // ÿľ̬Ȩֵ֮
+	private final int total; // ܳ
+	private final int slots; // ܲ
+
+	public InstanceProfile(int[][] matrix, int[][] optfreq, int[] demands) {
+		this(new ClassOptions(matrix, optfreq.length), optfreq, demands);
+	}
+
+	public InstanceProfile(ClassOptions options, int[][] optfreq, int[] demands) {
+		this.options = options;
+		nClasses = options.getNbClasses();
+		nOptions = options.getNbOptions();
+		p = new int[nOptions];
+		q = new int[nOptions];
+		capacityRatio = new int[nOptions];
+		for (int i = 0; i < nOptions; i++) {
+			p[i] = optfreq[i][0];
+			q[i] = optfreq[i][1];
+			capacityRatio[i] = q[i] / p[i];
+		}
+		optionDemand = new int[nOptions];
+		weight = new double[nClasses];
+		capacity = new double[nClasses];
+		int t = 0, s = 0;
+		for (int i = 0; i < nOptions; i++) {
+			optionDemand[i] = options.demand(i, demands);
+			s += optionDemand[i];
+		}
+		for (int c = 0; c < nClasses; c++) {
+			t += demands[c];
+			weight[c] = options.weight(c);
+			capacity[c] = options.sum(c, capacityRatio);
+		}
+		total = t;
+		slots = s;
+	}
+
+	public int getNbClasses() {
+		return nClasses;
+	}
+
+	public int getNbOptions() {
+		return nOptions;
+	}
+
+	public int getP(int optnum) {
+		return p[optnum];
+	}
+
+	public int getQ(int optnum) {
+		return q[optnum];
+	}
+
+	/**
+	 * @return optnum
+	 */
+	public int getDemand(int optnum) {
+		return optionDemand[optnum];
+	}
+
+	/**
+	 * @return optnum q/p
+	 */
+	public int getCapacityRatio(int optnum) {
+		return capacityRatio[optnum];
+	}
+
+	/**
+	 * @return ciλʾi
+	 */
+	public long getMask(int c) {
+		return options.mask(c);
+	}
+
+	public boolean hasOption(int c, int optnum) {
+		return options.has(c, optnum);
+	}
+
+	public ClassOptions getOptions() {
+		return options;
+	}
+
+	/**
+	 * @return c
+	 */
+	public double getWeight(int c) {
+		return weight[c];
+	}
+
+	/**
+	 * @return c֮
+	 */
+	public double getCapacity(int c) {
+		return capacity[c];
+	}
+
+	public int getTotal() {
+		return total;
+	}
+
+	public int getSlots() {
+		return slots;
+	}
+
+	/**
+	 * @return cڰaϵĺ
+	 */
+	public double sum(int c, double[] a) {
+		return options.sum(c, a);
+	}
+}
@@ -1,320 +1,80 @@
 package MyCSP.heuristic.values;
 
-import gnu.trove.list.TIntList;
-import gnu.trove.list.array.TIntArrayList;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
 import org.chocosolver.solver.variables.IntVar;
 
+import MyCSP.heuristic.variables.Exploration;
+
 public final class SAStandardization implements IntValueSelector {
 
-	private TIntList bests;
 	private java.util.Random random;
+	private ScoreKernel kernel; // ׼
 
-	private IntVar[] CarSeq; // 
-	private int[][] matrix, optfreq; // ݹ0/1
-	private int[] demands, result; // ݹÿ;洢̬ÿѾװ˼
-	private int slots; // ܲ
-	private int domain;
+	private IncrementalInformation info; // ɻݵͳ
+	private InstanceProfile profile; // ʵľ̬Ϣ
+	private int[] result; // 洢̬ÿѾװ˼
+	private double[] redemands, loads, slacks, usagerates; // ÿʣ󡢸ءɳڶȡ
 
 	public SAStandardization(IntVar[] vars, long seed, int[][] options, int[][] frequency, int[] nums) {
-		bests = new TIntArrayList();
+		this(vars, seed, new InstanceProfile(options, frequency, nums));
+	}
 
-		random = new java.util.Random(seed);
-		matrix = options;
-		optfreq = frequency;
-		demands = nums;
-		CarSeq = vars;
-		slots = 0;
+	public SAStandardization(IntVar[] vars, long seed, InstanceProfile profile) {
+		this(vars, seed, profile, null);
+	}
 
-		for (int j = 0; j < matrix.length; j++) {
-			for (int i = 0; i < matrix[0].length; i++) {
-				slots += matrix[j][i] * demands[j];
-			}
-		}
-		// System.out.println(slots);
+	/**
+	 * @param frontier ѡάѸֵǰ׺Ϊnullʱɨ
+	 */
+	public SAStandardization(IntVar[] vars, long seed, InstanceProfile profile, Exploration<IntVar> frontier) {
+		random = new java.util.Random(seed);
+		this.profile = profile;
+		info = new IncrementalInformation(vars, profile, frontier);
+		int length = profile.getNbOptions();
+		result = new int[length];
+		redemands = new double[length];
+		loads = new double[length];
+		slacks = new double[length];
+		usagerates = new double[length];
+		kernel = new ScoreKernel(profile.getNbClasses(), 6);
 	}
 
 	@Override
 	public int selectValue(IntVar var) {
-		// TODO Auto-generated method stub
-		// IntVar best = null;
-		bests.clear();
-		// System.out.println("selectvalue");
-		DynamicInformation di = new DynamicInformation(CarSeq);
-		int[] retmp = null;
-		if (di.getICarSeq() != null) {
-			retmp = di.getICarSeq();
-
-			// System.out.print("retmp=");
-			// for (int out : retmp) {
-			// System.out.print(out + " ");
-			// }
-			// System.out.println();
+		// ֻ¸ֵı
+		info.update();
+		for (int i = 0; i < result.length; i++) {
+			result[i] = info.getUsed(i);
 		}
-
-		int length = matrix[0].length;
-		// System.out.println(length);
-		result = new int[length];
-		if (retmp != null) {
-			for (int m = 0; m < retmp.length; m++) {
-				int row = retmp[m];
-				// System.out.println(row);
-				for (int n = 0; n < length; n++) {
-					// System.out.println(result[n]);
-					result[n] += matrix[row][n];
-					// System.out.print("result" + n + " " + result[n]);
-				}
-				// System.out.println();
-			}
+		// ÿĶ̬Ȩֵһξֻһ
+		int slots = profile.getSlots();
+		for (int i = 0; i < result.length; i++) {
+			double d = profile.getDemand(i);
+			redemands[i] = d - result[i];
+			loads[i] = loadcompute(i);
+			slacks[i] = slots - d + loads[i];
+			usagerates[i] = loads[i] / d;
 		}
 
 		int up = var.getUB();
-		domain = var.getDomainSize();
-
-		ArrayList<Integer> idlist = new ArrayList<Integer>();// ֵidxб
-		ArrayList<Double> wglist = new ArrayList<Double>(); // ӦȨֵб
-		// System.out.println(domain);
+		kernel.clear();
 		for (int idx = var.getLB(); idx <= up; idx = var.nextValue(idx)) {
-			// System.out.print("value ");
-			// System.out.print(idx + " ");
-
 			// 洢Ȩֵ
-			idlist.add(idx);
-			wglist.add(weight(matrix[idx]));
-
-			idlist.add(idx);
-			wglist.add(capacity(matrix[idx]));
-
-			idlist.add(idx);
-			wglist.add(redemand(matrix[idx]));
-
-			idlist.add(idx);
-			wglist.add(load(matrix[idx]));
-
-			idlist.add(idx);
-			wglist.add(slack(matrix[idx]));
-
-			idlist.add(idx);
-			wglist.add(usagerate(matrix[idx]));
-
-		}
-		// System.out.println();
-		// if (bests.size() > 0) {
-		// int currentVar = bests.get(random.nextInt(bests.size()));
-		// return currentVar;
-		// }else {
-		// System.out.println("weight error!");
-		// System.exit(0);
-		// return up;
-		// }
-		// System.out.println();
-
-		return standardize(idlist, wglist, up);
-
-	}
-
-	// ׼
-	private int standardize(ArrayList<Integer> il, ArrayList<Double> dl, int cv) {
-		Map<Integer, Double> hmresult = new HashMap<Integer, Double>();// ׼ʱ
-
-		int currentVar = cv;// ֵ
-		for (int j = 0; j < 6; j++) {// 6Ȩֵ6飬ֱб׼
-			double[] w = new double[domain];
-			int num = 0;
-			for (int i = j; i < dl.size(); i = i + 6) {
-				w[num] = dl.get(i);
-				num++;
-			}
-			num = 0;
-
-			// System.out.print("Ȩֵ");
-			// for(double t:w) {
-			// System.out.print(t+" ");
-			// }
-			// System.out.println();
-
-			w = normalize(w);// ޸Ȩֵ
-
-			// System.out.print("޸ĺȨֵ");
-			// for(double t:w) {
-			// System.out.print(t+" ");
-			// }
-			// System.out.println();
-
-			for (int i = j; i < dl.size(); i = i + 6) {
-
-				dl.set(i, w[num]);// ޸ȨֵбеȨֵ
-				num++;
-			}
-		}
-		for (int n = 0; n < dl.size(); n++) {// ֵidx׼ȨֵбжӦ6Ȩֵм򵥵ļӺʹ浽ϣ
-			int id = il.get(n);
-			double wg = dl.get(n);
-			if (hmresult.get(id) != null) {
-				wg += hmresult.get(id);
-				hmresult.put(id, wg);
-			} else {
-				hmresult.put(id, wg);
-			}
+			double[] w = kernel.add(idx);
+			w[0] = profile.getWeight(idx); // 
+			w[1] = profile.getCapacity(idx); // 
+			w[2] = profile.sum(idx, redemands); // ʣ
+			w[3] = profile.sum(idx, loads); // 
+			w[4] = profile.sum(idx, slacks); // ɳڶ
+			w[5] = profile.sum(idx, usagerates); // 
 		}
-		// ԹϣʹȨֵߵֵidxڱ񶥲
-		ByValueComparator bvc = new ByValueComparator(hmresult);
-		List<Map.Entry<Integer, Double>> ll = new ArrayList<Map.Entry<Integer, Double>>(hmresult.entrySet());
-		Collections.sort(ll, bvc);
 
-		// for (Map.Entry<Integer, Double> r : ll) {
-		// System.out.println(r.getKey() + " " + r.getValue());
-		// }
+		return kernel.select(random, up);
 
-		ArrayList<Integer> best = new ArrayList<Integer>();// ȨֵߵֵidxΨһʱ
-
-		
-		int key = ll.get(0).getKey();
-		best.add(key);
-		double value = ll.get(0).getValue();
-		for(int i = 1; i < ll.size();i++) {
-			if(value == ll.get(i).getValue()) {
-				best.add(ll.get(i).getKey());
-				
-			}
-		}
-
-		// for (int r : best) {
-		// System.out.print(r + " ");
-		// }
-		try {
-			int index = random.nextInt(best.size());
-			// System.out.println(index);
-			currentVar = best.get(index);
-		} catch (Exception e) {
-			System.out.println("weight error!");
-		}
-		return currentVar;
-	}
-
-	// һ
-	private static double[] normalize(double[] da) {
-		double min = min(da);
-		double max = max(da);
-		if (min == max) {
-			min = 0;
-		}
-		if (max == 0) {
-			max = 1;
-		}
-		for (int i = 0; i < da.length; i++) {
-			da[i] = (da[i] - min) / (max - min);
-		}
-		return da;
-	}
-
-	// Сֵ
-	private static double min(double[] array) {
-		double minValue = array[0];
-		for (int i = 0; i < array.length; i++) {
-			if (array[i] < minValue)
-				minValue = array[i];
-		}
-		return minValue;
-
-	}
-
-	// ֵ
-	private static double max(double[] array) {
-		double maxValue = array[0];
-		for (int i = 0; i < array.length; i++) {
-			if (array[i] > maxValue)
-				maxValue = array[i];
-		}
-		return maxValue;
-
-	}
-
-	// 
-	private double weight(int[] v) {
-		double w = 0;
-		for (int i = 0; i < v.length; i++) {
-			w += v[i];
-		}
-		// System.out.print(w + " ");
-		return w;
-	}
-
-	// 
-	private double capacity(int[] v) {
-		double w = 0;
-		for (int i = 0; i < v.length; i++) {
-			w += v[i] * optfreq[i][1] / optfreq[i][0];
-		}
-		return w;
-
-	}
-
-	// ̬
-	// ʣ
-	private double redemand(int[] v) {
-		double w = 0;
-		// ̬ʣμ
-		for (int i = 0; i < v.length; i++) {
-			w += v[i] * (demand(i) - result[i]);
-		}
-		// System.out.print(w + " ");
-		return w;
-	}
-
-	private double demand(int optnum) {
-		double d = 0;
-		// System.out.println("");
-		for (int i = 0; i < matrix.length; i++) {
-			d += matrix[i][optnum] * demands[i];
-			// System.out.print("matrix "+ matrix[i][optnum] + " demands "+ demands[i]);
-		}
-		// System.out.println(" d=" + d);
-		return d;
-	}
-
-	// 
-	private double load(int[] v) {
-		double w = 0;
-		// ̬ʣμ
-		for (int i = 0; i < v.length; i++) {
-			w += v[i] * loadcompute(i);
-		}
-		// System.out.print(w + " ");
-		return w;
 	}
 
 	private double loadcompute(int optnum) {
-		double l = (demand(optnum) - result[optnum]) * optfreq[optnum][1] / optfreq[optnum][0];
+		double l = (double) (profile.getDemand(optnum) - result[optnum]) * profile.getQ(optnum) / profile.getP(optnum);
 		return l;
 	}
-
-	// ɳڶ
-	private double slack(int[] v) {
-		double w = 0;
-		// ̬ʣμ
-		for (int i = 0; i < v.length; i++) {
-			w += v[i] * (slots - demand(i) + loadcompute(i));
-		}
-		// System.out.print(w + " ");
-		return w;
-	}
-
-	// 
-	private double usagerate(int[] v) {
-		double w = 0;
-		// ̬ʣμ
-		for (int i = 0; i < v.length; i++) {
-			w += v[i] * (loadcompute(i) / demand(i));
-		}
-		// System.out.print(w + " ");
-		return w;
-	}
 }
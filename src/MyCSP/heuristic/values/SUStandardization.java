@@ -1,310 +1,80 @@
 package MyCSP.heuristic.values;
 
-import gnu.trove.list.TIntList;
-import gnu.trove.list.array.TIntArrayList;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
 import org.chocosolver.solver.variables.IntVar;
 
+import MyCSP.heuristic.variables.Exploration;
+
 public final class SUStandardization implements IntValueSelector {
 
-	private TIntList bests;
 	private java.util.Random random;
+	private ScoreKernel kernel; // ׼
 
-	private IntVar[] CarSeq; // 
-	private int[][] matrix, optfreq; // ݹ0/1
-	private int[] demands, result,slotava; // ݹÿ;洢̬ÿѾװ˼
-//	private int slots; // ܲ
-	private int domain;
+	private IncrementalInformation info; // ɻݵͳ
+	private InstanceProfile profile; // ʵľ̬Ϣ
+	private int[] result, slotava; // 洢̬ÿѾװ˼ΣÿӦʣ
+	private double[] slacks, usagerates; // ÿɳڶȡ
 
 	public SUStandardization(IntVar[] vars, long seed, int[][] options, int[][] frequency, int[] nums) {
-		bests = new TIntArrayList();
-
-		random = new java.util.Random(seed);
-		matrix = options;
-		optfreq = frequency;
-		demands = nums;
-		CarSeq = vars;
-		slotava = new int[optfreq.length];
-		
-		for (int j = 0; j < slotava.length; j++) {
-			slotava[j] = sumofArray(demands);
-		}
-		// System.out.println(slots);
+		this(vars, seed, new InstanceProfile(options, frequency, nums));
 	}
 
-	private int sumofArray(int[] array) {
-		int sum = 0;
-		for (int i = 0; i < array.length; i++) {
-			sum += array[i];
-		}
-		return sum;
+	public SUStandardization(IntVar[] vars, long seed, InstanceProfile profile) {
+		this(vars, seed, profile, null);
 	}
-	@Override
-	public int selectValue(IntVar var) {
-		// TODO Auto-generated method stub
-		// IntVar best = null;
-		bests.clear();
-		// System.out.println("selectvalue");
-		DynamicInformation di = new DynamicInformation(CarSeq);
-		int[] retmp = null;
-		if (di.getICarSeq() != null) {
-			retmp = di.getICarSeq();
-
-			// System.out.print("retmp=");
-			// for (int out : retmp) {
-			// System.out.print(out + " ");
-			// }
-			// System.out.println();
-		}
 
-		int length = matrix[0].length;
-		// System.out.println(length);
+	/**
+	 * @param frontier ѡάѸֵǰ׺Ϊnullʱɨ
+	 */
+	public SUStandardization(IntVar[] vars, long seed, InstanceProfile profile, Exploration<IntVar> frontier) {
+		random = new java.util.Random(seed);
+		this.profile = profile;
+		info = new IncrementalInformation(vars, profile, frontier);
+		int length = profile.getNbOptions();
 		result = new int[length];
-		if (retmp != null) {
-			for (int m = 0; m < retmp.length; m++) {
-				int row = retmp[m];
-				// System.out.println(row);
-				for (int n = 0; n < length; n++) {
-					// System.out.println(result[n]);
-					result[n] += matrix[row][n];
-					// System.out.print("result" + n + " " + result[n]);
-				}
-				// System.out.println();
-			}
-			
-			// ʣ
-			for (int n = 0; n < length; n++) {
-				int m = 0;
-				int count = 0;
-				int index = 0;
-				for (; m < retmp.length; m++) {
-					int row = retmp[m];
-					// ѸֵĲһԼ
-					if (optfreq[n][0] == 1) {
-						if (matrix[row][n] == 1) {
-							m += optfreq[n][1] - 1;
-						}
-					} else if (optfreq[n][0] == 2) {
-						if (matrix[row][n] == 1) {
-							count++;
-							if (count < 2) {
-								index = m;
-							} else {
-								if (m - index > optfreq[n][1] - 1) {
-									count = 1;
-									index = m;
-								} else {
-									m = index + optfreq[n][1];
-								}
-								count = 0;
-							}
-						}
-					}
-				}
-				slotava[n] = sumofArray(demands) - m;
-
-			}
-		}
-
-		int up = var.getUB();
-		domain = var.getDomainSize();
-
-		ArrayList<Integer> idlist = new ArrayList<Integer>();// ֵidxб
-		ArrayList<Double> wglist = new ArrayList<Double>(); // ӦȨֵб
-		// System.out.println(domain);
-		for (int idx = var.getLB(); idx <= up; idx = var.nextValue(idx)) {
-			// System.out.print("value ");
-			// System.out.print(idx + " ");
-
-			// 洢Ȩֵ
-
-			idlist.add(idx);
-			wglist.add(slack(matrix[idx]));
-
-			idlist.add(idx);
-			wglist.add(usagerate(matrix[idx]));
-
-		}
-		// System.out.println();
-		// if (bests.size() > 0) {
-		// int currentVar = bests.get(random.nextInt(bests.size()));
-		// return currentVar;
-		// }else {
-		// System.out.println("weight error!");
-		// System.exit(0);
-		// return up;
-		// }
-		// System.out.println();
-
-		return standardize(idlist, wglist, up);
-
+		slotava = new int[length];
+		slacks = new double[length];
+		usagerates = new double[length];
+		kernel = new ScoreKernel(profile.getNbClasses(), 2);
 	}
 
-	// ׼
-	private int standardize(ArrayList<Integer> il, ArrayList<Double> dl, int cv) {
-		Map<Integer, Double> hmresult = new HashMap<Integer, Double>();// ׼ʱ
-
-		int currentVar = cv;// ֵ
-		for (int j = 0; j < 2; j++) {// 2Ȩֵ2飬ֱб׼
-			double[] w = new double[domain];
-			int num = 0;
-			for (int i = j; i < dl.size(); i = i + 2) {
-				w[num] = dl.get(i);
-				num++;
-			}
-			num = 0;
-
-			// System.out.print("Ȩֵ");
-			// for(double t:w) {
-			// System.out.print(t+" ");
-			// }
-			// System.out.println();
-
-			w = normalize(w);// ޸Ȩֵ
-
-			// System.out.print("޸ĺȨֵ");
-			// for(double t:w) {
-			// System.out.print(t+" ");
-			// }
-			// System.out.println();
-
-			for (int i = j; i < dl.size(); i = i + 2) {
-
-				dl.set(i, w[num]);// ޸ȨֵбеȨֵ
-				num++;
-			}
-		}
-		for (int n = 0; n < dl.size(); n++) {// ֵidx׼ȨֵбжӦ2Ȩֵм򵥵ļӺʹ浽ϣ
-			int id = il.get(n);
-			double wg = dl.get(n);
-			if (hmresult.get(id) != null) {
-				wg += hmresult.get(id);
-				hmresult.put(id, wg);
-			} else {
-				hmresult.put(id, wg);
-			}
-		}
-		// ԹϣʹȨֵߵֵidxڱ񶥲
-		ByValueComparator bvc = new ByValueComparator(hmresult);
-		List<Map.Entry<Integer, Double>> ll = new ArrayList<Map.Entry<Integer, Double>>(hmresult.entrySet());
-		Collections.sort(ll, bvc);
-
-		// for (Map.Entry<Integer, Double> r : ll) {
-		// System.out.println(r.getKey() + " " + r.getValue());
-		// }
-
-		ArrayList<Integer> best = new ArrayList<Integer>();// ȨֵߵֵidxΨһʱ
-
-		
-		int key = ll.get(0).getKey();
-		best.add(key);
-		double value = ll.get(0).getValue();
-		for(int i = 1; i < ll.size();i++) {
-			if(value == ll.get(i).getValue()) {
-				best.add(ll.get(i).getKey());
-				
-			}
-		}
-
-		// for (int r : best) {
-		// System.out.print(r + " ");
-		// }
-		try {
-			int index = random.nextInt(best.size());
-			// System.out.println(index);
-			currentVar = best.get(index);
-		} catch (Exception e) {
-			System.out.println("weight error!");
-		}
-		return currentVar;
-	}
-
-	// һ
-	private static double[] normalize(double[] da) {
-		double min = min(da);
-		double max = max(da);
-		if (min == max) {
-			min = 0;
+	@Override
+	public int selectValue(IntVar var) {
+		// ֻ¸ֵıʣɨõ
+		info.update();
+		int length = result.length;
+		for (int n = 0; n < length; n++) {
+			result[n] = info.getUsed(n);
+			slotava[n] = info.getSlotava(n);
 		}
-		if (max == 0) {
-			max = 1;
+		// ÿĶ̬Ȩֵһξֻһ
+		int slotsum = 0;
+		for (int n = 0; n < length; n++) {
+			slotsum += slotava[n];
 		}
-		for (int i = 0; i < da.length; i++) {
-			da[i] = (da[i] - min) / (max - min);
+		for (int n = 0; n < length; n++) {
+			double l = loadcompute(n);
+			slacks[n] = slotsum - slotava[n] + l;
+			usagerates[n] = l / slotava[n];
 		}
-		return da;
-	}
 
-	// Сֵ
-	private static double min(double[] array) {
-		double minValue = array[0];
-		for (int i = 0; i < array.length; i++) {
-			if (array[i] < minValue)
-				minValue = array[i];
+		int up = var.getUB();
+		kernel.clear();
+		for (int idx = var.getLB(); idx <= up; idx = var.nextValue(idx)) {
+			// 洢Ȩֵ
+			double[] w = kernel.add(idx);
+			w[0] = profile.sum(idx, slacks); // ɳڶ
+			w[1] = profile.sum(idx, usagerates); // 
 		}
-		return minValue;
-
-	}
 
-	// ֵ
-	private static double max(double[] array) {
-		double maxValue = array[0];
-		for (int i = 0; i < array.length; i++) {
-			if (array[i] > maxValue)
-				maxValue = array[i];
-		}
-		return maxValue;
+		return kernel.select(random, up);
 
 	}
 
 
 
-	private double demand(int optnum) {
-		double d = 0;
-		// System.out.println("");
-		for (int i = 0; i < matrix.length; i++) {
-			d += matrix[i][optnum] * demands[i];
-			// System.out.print("matrix "+ matrix[i][optnum] + " demands "+ demands[i]);
-		}
-		// System.out.println(" d=" + d);
-		return d;
-	}
-
-
 	private double loadcompute(int optnum) {
-		double l = (demand(optnum) - result[optnum]) * optfreq[optnum][1] / optfreq[optnum][0];
+		double l = (double) (profile.getDemand(optnum) - result[optnum]) * profile.getQ(optnum) / profile.getP(optnum);
 		return l;
 	}
-
-	// ɳڶ
-	private double slack(int[] v) {
-		double w = 0;
-		// ̬ʣμ
-		for (int i = 0; i < v.length; i++) {
-//			w += v[i] * (slots - demand(i) + loadcompute(i));
-//			w += v[i] * (slots - (demand(i) - result[i]) + loadcompute(i));
-			//δ
-			w += v[i] * (sumofArray(slotava) - slotava[i] + loadcompute(i));
-		}
-//		System.out.print(w + " ");
-		return w;
-	}
-
-	// 
-	private double usagerate(int[] v) {
-		double w = 0;
-		// ̬ʣμ
-		for (int i = 0; i < v.length; i++) {
-			w += v[i] * (loadcompute(i) / slotava[i]);
-		}
-//		System.out.print(w + " ");
-		return w;
-	}
 }
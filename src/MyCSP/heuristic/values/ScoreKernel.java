@@ -0,0 +1,97 @@
+package MyCSP.heuristic.values;
+
+/**
+ * ׼֣ÿѡֵȨֵÿȨֵкѡֵϷֱһӺͣ
+ * ѡܷߵֵܷͬʱѡȡ
+ * лڹʱ䣬ÿξ߲¶ҲҪ
+ */
+public final class ScoreKernel {
+
+	private final double[][] scores; // ÿѡֵĸȨֵ
+	private final int[] values; // ѡֵ
+	private final int[] ties; // ܷߵĺѡֵ
+	private final int criteria; // Ȩֵ
+	private int size;
+
+	/**
+	 * @param nClasses ѡֵ
+	 * @param nCriteria Ȩֵ
+	 */
+	public ScoreKernel(int nClasses, int nCriteria) {
+		scores = new double[nClasses][nCriteria];
+		values = new int[nClasses];
+		ties = new int[nClasses];
+		criteria = nCriteria;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * һѡֵ
+	 *
+	 * @return úѡֵȨֵ飬ɵд
+	 */
+	public double[] add(int value) {
+		values[size] = value;
+		return scores[size++];
+	}
+
+	/**
+	 * һӺͲѡܷߵֵ
+	 *
+	 * @param random ܷͬʱѡ
+	 * @param cv ûкѡֵʱصֵ
+	 */
+	public int select(java.util.Random random, int cv) {
+		if (size == 0) {
+			System.out.println("weight error!");
+			return cv;
+		}
+		for (int j = 0; j < criteria; j++) {
+			normalize(j);
+		}
+		int nties = 0;
+		double best = 0;
+		for (int i = 0; i < size; i++) {
+			double[] s = scores[i];
+			double w = s[0];
+			for (int j = 1; j < criteria; j++) {
+				w += s[j];
+			}
+			if (nties == 0 || w > best) {
+				best = w;
+				ties[0] = values[i];
+				nties = 1;
+			} else if (w == best) {
+				ties[nties++] = values[i];
+			}
+		}
+		return ties[random.nextInt(nties)];
+	}
+
+	// һjȨֵ
+	private void normalize(int j) {
+		double min = scores[0][j];
+		double max = min;
+		for (int i = 1; i < size; i++) {
+			double w = scores[i][j];
+			if (w < min) {
+				min = w;
+			}
+			if (w > max) {
+				max = w;
+			}
+		}
+		if (min == max) {
+			min = 0;
+		}
+		if (max == 0) {
+			max = 1;
+		}
+		for (int i = 0; i < size; i++) {
+			scores[i][j] = (scores[i][j] - min) / (max - min);
+		}
+	}
+}
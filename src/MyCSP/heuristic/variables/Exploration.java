@@ -1,4 +1,3 @@
-
 package MyCSP.heuristic.variables;
 
 import org.chocosolver.memory.IStateInt;
@@ -6,7 +5,13 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.search.strategy.selectors.variables.VariableSelector;
 import org.chocosolver.solver.variables.Variable;
 
-
+/**
+ * Selects the variables in sequence order, from the frontier of the assigned prefix.
+ * <br/>
+ * The frontier is stored: it is restored on backtrack and goes back to 0 on restart,
+ * so each call only scans the variables assigned since the previous one (O(1) amortized).
+ * Value selectors may read the prefix length instead of scanning the whole sequence.
+ */
 public class Exploration<V extends Variable> implements VariableSelector<V> {
 
     private IStateInt lastIdx; // index of the last non-instantiated variable
@@ -27,5 +32,12 @@ public class Exploration<V extends Variable> implements VariableSelector<V> {
         lastIdx.set(variables.length);
         return null;
     }
-}
 
+    /**
+     * @return the number of variables of the assigned prefix, as seen by the last call to getVariable:
+     * variables[0..length-1] are instantiated
+     */
+    public int getPrefixLength() {
+        return lastIdx.get();
+    }
+}
@@ -0,0 +1,129 @@
+package MyCSP.localsearch;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.chocosolver.solver.variables.IntVar;
+
+import MyCSP.heuristic.values.InstanceProfile;
+import MyCSP.model.data.CarSequencingInstance;
+
+/**
+ * ֲĳʼУλ÷ųѹ̶λãCPֹͣʱѸֵıֲ䡣
+ * ÿλڻʣѡʹΥ٣ٰSelectionAggregationĸ׼
+ *  (ʣ * q / p) ֮
+ */
+public final class GreedyConstruction {
+
+	private GreedyConstruction() {
+	}
+
+	/**
+	 * @return ѸֵıȡֵΪ-1
+	 */
+	public static int[] partial(IntVar[] vars) {
+		int[] seq = new int[vars.length];
+		for (int k = 0; k < vars.length; k++) {
+			seq[k] = vars[k].isInstantiated() ? vars[k].getValue() : -1;
+		}
+		return seq;
+	}
+
+	public static int[] build(CarSequencingInstance instance, long seed) {
+		int[] partial = new int[instance.getNbCars()];
+		Arrays.fill(partial, -1);
+		return build(instance, partial, seed);
+	}
+
+	/**
+	 * @param partial ÿλõ࣬-1ʾ
+	 * @return Уÿĳ
+	 */
+	public static int[] build(CarSequencingInstance instance, int[] partial, long seed) {
+		int n = instance.getNbCars();
+		if (partial.length != n) {
+			throw new UnsupportedOperationException("ERROR: partial sequence of " + partial.length + " cars, expected " + n);
+		}
+		InstanceProfile profile = new InstanceProfile(instance.getClassOptions(), instance.getOptfreq(), instance.getDemands());
+		int[] remaining = instance.getDemands(); // ÿ໹Ҫŵĳ
+		for (int c : partial) {
+			if (c >= 0 && --remaining[c] < 0) {
+				throw new UnsupportedOperationException("ERROR: class " + c + " exceeds its demand in the partial sequence");
+			}
+		}
+		int[] seq = partial.clone();
+		fill(profile, seq, remaining, seed);
+		return seq;
+	}
+
+	/**
+	 * seqΪ-1λϴҷųλò䲢봰ڼ
+	 *
+	 * @param remaining ÿɷŵĳڴλųʱӦ
+	 */
+	public static void fill(InstanceProfile profile, int[] seq, int[] remaining, long seed) {
+		int n = seq.length;
+		int nClasses = profile.getNbClasses(), nOptions = profile.getNbOptions();
+		Random random = new Random(seed);
+
+		int[] left = new int[nOptions]; // ÿҪŵĳ
+		for (int c = 0; c < nClasses; c++) {
+			for (long m = profile.getMask(c); m != 0; m &= m - 1) {
+				left[Long.numberOfTrailingZeros(m)] += remaining[c];
+			}
+		}
+
+		int[] last = new int[nOptions]; // iλk֮ǰq-1еĳ
+		double[] loads = new double[nOptions];
+		int[] bests = new int[nClasses];
+		for (int k = 0; k < n; k++) {
+			if (seq[k] < 0) {
+				for (int i = 0; i < nOptions; i++) {
+					loads[i] = (double) left[i] * profile.getQ(i) / profile.getP(i);
+				}
+				int nbBests = 0, bestViolations = Integer.MAX_VALUE;
+				double bestLoad = -1;
+				for (int c = 0; c < nClasses; c++) {
+					if (remaining[c] == 0) {
+						continue;
+					}
+					int violations = 0;
+					for (long m = profile.getMask(c); m != 0; m &= m - 1) {
+						int i = Long.numberOfTrailingZeros(m);
+						if (last[i] + 1 > profile.getP(i)) {
+							violations++;
+						}
+					}
+					double load = profile.sum(c, loads);
+					if (violations < bestViolations || violations == bestViolations && load > bestLoad) {
+						nbBests = 0;
+						bestViolations = violations;
+						bestLoad = load;
+					}
+					if (violations == bestViolations && load == bestLoad) {
+						bests[nbBests++] = c;
+					}
+				}
+				if (nbBests == 0) {
+					throw new UnsupportedOperationException("ERROR: no car left for position " + k);
+				}
+				int c = bests[random.nextInt(nbBests)];
+				seq[k] = c;
+				remaining[c]--;
+				for (long m = profile.getMask(c); m != 0; m &= m - 1) {
+					left[Long.numberOfTrailingZeros(m)]--;
+				}
+			}
+			// һλ
+			for (int i = 0; i < nOptions; i++) {
+				int q = profile.getQ(i);
+				if (profile.hasOption(seq[k], i)) {
+					last[i]++;
+				}
+				if (k - q + 1 >= 0 && profile.hasOption(seq[k - q + 1], i)) {
+					last[i]--;
+				}
+			}
+		}
+	}
+}
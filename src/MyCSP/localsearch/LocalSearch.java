@@ -0,0 +1,166 @@
+package MyCSP.localsearch;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import MyCSP.model.data.CarSequencingInstance;
+import MyCSP.model.data.DataSet;
+import MyCSP.model.data.InstanceReader;
+
+/**
+ * ԴΥΪ۵ģ˻ڴģʵϿٵõлƿеС
+ * ÿȡһΥĴڣȡһҪĳת
+ * һѡͷתspan֮ڡ
+ * ۲ƶǽܣdeltaƶexp(-delta / T)ĸʽܣTÿְcooling˥minTemperatureΪֹ
+ * patienceûҵõʱصʼ¶˻
+ */
+public final class LocalSearch {
+
+	private final CarSequencingInstance instance;
+	private final Random random;
+
+	private double temperature = 1.0; // ʼ¶
+	private double minTemperature = 0.02; // ¶
+	private double cooling = 0.999; // ÿֵĽϵ
+	private int patience = 5000; // ûиĽ
+	private int roundLength = 1000; // ÿֵĲ
+	private double swapRate = 0.6, insertRate = 0.2; // Ϊת
+	private int span = 30; // 롢ת
+
+	private long iterations;
+	private int[] best;
+	private int bestCost;
+
+	public LocalSearch(CarSequencingInstance instance, long seed) {
+		this.instance = instance;
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * @param patience ûиĽ
+	 */
+	public LocalSearch setTemperature(double temperature, double minTemperature, double cooling, int roundLength, int patience) {
+		this.temperature = temperature;
+		this.minTemperature = minTemperature;
+		this.cooling = cooling;
+		this.roundLength = roundLength;
+		this.patience = patience;
+		return this;
+	}
+
+	/**
+	 * @param swapRate ı
+	 * @param insertRate ıΪת
+	 * @param span 롢ת
+	 */
+	public LocalSearch setMoves(double swapRate, double insertRate, int span) {
+		this.swapRate = swapRate;
+		this.insertRate = insertRate;
+		this.span = span;
+		return this;
+	}
+
+	/**
+	 * startֱΪ0ʱﵽ
+	 *
+	 * @return ҵĴС
+	 */
+	public int[] run(int[] start, long timeLimitMillis, long maxIterations) {
+		WindowViolations state = new WindowViolations(instance, start);
+		int n = state.size();
+		best = state.toArray();
+		bestCost = state.cost();
+		iterations = 0;
+		long deadline = System.currentTimeMillis() + timeLimitMillis;
+		double t = temperature;
+		int stale = 0; // ûиĽ
+		while (state.cost() > 0 && iterations < maxIterations) {
+			if (iterations % roundLength == 0) {
+				if (System.currentTimeMillis() > deadline) {
+					break;
+				}
+				if (++stale > patience) {
+					t = temperature;
+					stale = 0;
+				} else {
+					t = Math.max(t * cooling, minTemperature);
+				}
+			}
+			iterations++;
+			// ΥһҪĳ
+			int k = random.nextInt(state.nbViolatedWindows());
+			int i = state.violatedOption(k), w = state.violatedStart(k);
+			int a = w + random.nextInt(state.windowLength(i));
+			while (!state.has(a, i)) {
+				a = a + 1 < w + state.windowLength(i) ? a + 1 : w;
+			}
+			double r = random.nextDouble();
+			int delta;
+			if (r < swapRate) {
+				int b = random.nextInt(n);
+				if (state.get(a) == state.get(b)) {
+					continue;
+				}
+				delta = state.swapDelta(a, b);
+				if (accept(delta, t)) {
+					state.swap(a, b);
+				}
+			} else {
+				int b = Math.max(0, Math.min(n - 1, a + random.nextInt(2 * span + 1) - span));
+				if (a == b) {
+					continue;
+				}
+				if (r < swapRate + insertRate) {
+					delta = state.insertDelta(a, b);
+					if (accept(delta, t)) {
+						state.insert(a, b);
+					}
+				} else {
+					delta = state.reverseDelta(Math.min(a, b), Math.max(a, b));
+					if (accept(delta, t)) {
+						state.reverse(Math.min(a, b), Math.max(a, b));
+					}
+				}
+			}
+			if (state.cost() < bestCost) {
+				bestCost = state.cost();
+				best = state.toArray();
+				stale = 0;
+			}
+		}
+		return best.clone();
+	}
+
+	private boolean accept(int delta, double t) {
+		return delta <= 0 || random.nextDouble() < Math.exp(-delta / t);
+	}
+
+	public long getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * @return һrunҵСۣ0ʾ
+	 */
+	public int getBestCost() {
+		return bestCost;
+	}
+
+	/**
+	 * ÷LocalSearch [ʵ] [] []ʵΪݼе֣ MyData.md_m01CSPLib.random05ļ
+	 */
+	public static void main(String[] args) {
+		String name = args.length > 0 ? args[0] : "MyData.md_m01";
+		long seconds = args.length > 1 ? Long.parseLong(args[1]) : 10;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+		long t0 = System.currentTimeMillis();
+		CarSequencingInstance instance = Files.exists(Paths.get(name)) ? InstanceReader.load(name) : InstanceReader.cached(DataSet.source(name));
+		int[] start = GreedyConstruction.build(instance, seed);
+		LocalSearch ls = new LocalSearch(instance, seed);
+		int initial = new WindowViolations(instance, start).cost();
+		ls.run(start, seconds * 1000, Long.MAX_VALUE);
+		System.out.println(name + ": ʼ " + initial + "մ " + ls.getBestCost() + "" + ls.getIterations() + " "
+				+ (System.currentTimeMillis() - t0) / 1000f + "s");
+	}
+}
@@ -0,0 +1,282 @@
+package MyCSP.localsearch;
+
+import MyCSP.model.data.CarSequencingInstance;
+
+/**
+ * p/qΥȵά
+ * iĴΪwʼqw = 0..n-qΥΪmax(0, Ҫiĳ - p)
+ * ܴΪдڵΥ֮ͣΪ0ʱпС
+ * <br/>
+ * λֻӰλõĴڣÿO(q)۱仯
+ * ͷתıһλãӰĴڻ㣬ÿO(γ + q)
+ * ΥĴڷһϡ輯УO(1)ȡһ
+ */
+public final class WindowViolations {
+
+	private final int n, nOptions;
+	private final int[] p, q;
+	private final long[] masks; // ÿ
+	private final int[] seq; // ǰ
+
+	private final int[][] count; // count[i][w]iwʼĴҪĳ
+	private final int[] offset; // iĴΥеı
+	private int cost;
+
+	// Υڵϡ輯ϣΪoffset[i] + w
+	private final int[] dense, sparse;
+	private int size;
+
+	public WindowViolations(CarSequencingInstance instance, int[] seq) {
+		n = seq.length;
+		if (n != instance.getNbCars()) {
+			throw new UnsupportedOperationException("ERROR: sequence of " + n + " cars, expected " + instance.getNbCars());
+		}
+		nOptions = instance.getNbOptions();
+		p = new int[nOptions];
+		q = new int[nOptions];
+		masks = new long[instance.getNbClasses()];
+		for (int c = 0; c < masks.length; c++) {
+			masks[c] = instance.getClassOptions().mask(c);
+		}
+		this.seq = seq.clone();
+		count = new int[nOptions][];
+		offset = new int[nOptions + 1];
+		for (int i = 0; i < nOptions; i++) {
+			p[i] = instance.getP(i);
+			q[i] = Math.min(instance.getQ(i), n); // qʱֻһ
+			count[i] = new int[n - q[i] + 1];
+			offset[i + 1] = offset[i] + count[i].length;
+		}
+		dense = new int[offset[nOptions]];
+		sparse = new int[offset[nOptions]];
+		for (int i = 0; i < nOptions; i++) {
+			commit(i, 0, count[i].length - 1);
+		}
+	}
+
+	public int size() {
+		return n;
+	}
+
+	public int get(int pos) {
+		return seq[pos];
+	}
+
+	public int[] toArray() {
+		return seq.clone();
+	}
+
+	/**
+	 * @return дڵΥ֮
+	 */
+	public int cost() {
+		return cost;
+	}
+
+	public int getNbOptions() {
+		return nOptions;
+	}
+
+	public boolean has(int pos, int optnum) {
+		return (masks[seq[pos]] >>> optnum & 1) != 0;
+	}
+
+	/**
+	 * @return ΥĴڸ
+	 */
+	public int nbViolatedWindows() {
+		return size;
+	}
+
+	/**
+	 * @return kΥڵ
+	 */
+	public int violatedOption(int k) {
+		int id = dense[k];
+		int i = 0;
+		while (offset[i + 1] <= id) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * @return kΥڵ
+	 */
+	public int violatedStart(int k) {
+		return dense[k] - offset[violatedOption(k)];
+	}
+
+	public int windowLength(int optnum) {
+		return q[optnum];
+	}
+
+	private int violation(int i, int c) {
+		return c > p[i] ? c - p[i] : 0;
+	}
+
+	// =====  =====
+
+	/**
+	 * @return λabܴ۵ı仯
+	 */
+	public int swapDelta(int a, int b) {
+		long diff = masks[seq[a]] ^ masks[seq[b]];
+		int delta = 0;
+		for (long m = diff; m != 0; m &= m - 1) {
+			int i = Long.numberOfTrailingZeros(m);
+			// aiı仯b෴
+			int d = (masks[seq[b]] >>> i & 1) != 0 ? 1 : -1;
+			delta += shiftDelta(i, a, b, d) + shiftDelta(i, b, a, -d);
+		}
+		return delta;
+	}
+
+	public void swap(int a, int b) {
+		long diff = masks[seq[a]] ^ masks[seq[b]];
+		for (long m = diff; m != 0; m &= m - 1) {
+			int i = Long.numberOfTrailingZeros(m);
+			int d = (masks[seq[b]] >>> i & 1) != 0 ? 1 : -1;
+			shift(i, a, b, d);
+			shift(i, b, a, -d);
+		}
+		int t = seq[a];
+		seq[a] = seq[b];
+		seq[b] = t;
+	}
+
+	// iĴаposotherģd۵ı仯
+	private int shiftDelta(int i, int pos, int other, int d) {
+		int delta = 0;
+		int[] c = count[i];
+		int to = Math.min(pos, c.length - 1);
+		for (int w = Math.max(0, pos - q[i] + 1); w <= to; w++) {
+			if (other < w || other >= w + q[i]) {
+				delta += violation(i, c[w] + d) - violation(i, c[w]);
+			}
+		}
+		return delta;
+	}
+
+	private void shift(int i, int pos, int other, int d) {
+		int[] c = count[i];
+		int to = Math.min(pos, c.length - 1);
+		for (int w = Math.max(0, pos - q[i] + 1); w <= to; w++) {
+			if (other < w || other >= w + q[i]) {
+				set(i, w, c[w] + d);
+			}
+		}
+	}
+
+	// ===== 롢ת =====
+
+	/**
+	 * @return λfromĳƵλtoĳ˳һλܴ۵ı仯
+	 */
+	public int insertDelta(int from, int to) {
+		move(from, to);
+		int delta = rangeDelta(Math.min(from, to), Math.max(from, to));
+		move(to, from);
+		return delta;
+	}
+
+	public void insert(int from, int to) {
+		move(from, to);
+		commit(Math.min(from, to), Math.max(from, to));
+	}
+
+	/**
+	 * @return ת[from, to]һκܴ۵ı仯
+	 */
+	public int reverseDelta(int from, int to) {
+		reverse(seq, from, to);
+		int delta = rangeDelta(from, to);
+		reverse(seq, from, to);
+		return delta;
+	}
+
+	public void reverse(int from, int to) {
+		reverse(seq, from, to);
+		commit(from, to);
+	}
+
+	private void move(int from, int to) {
+		int c = seq[from];
+		if (from < to) {
+			System.arraycopy(seq, from + 1, seq, from, to - from);
+		} else {
+			System.arraycopy(seq, to, seq, to + 1, from - to);
+		}
+		seq[to] = c;
+	}
+
+	private static void reverse(int[] a, int from, int to) {
+		for (; from < to; from++, to--) {
+			int t = a[from];
+			a[from] = a[to];
+			a[to] = t;
+		}
+	}
+
+	// seq[lo, hi]ѸıcountδıʱӰ촰ڰǰseqĴ۱仯
+	private int rangeDelta(int lo, int hi) {
+		int delta = 0;
+		for (int i = 0; i < nOptions; i++) {
+			int[] c = count[i];
+			int from = Math.max(0, lo - q[i] + 1), to = Math.min(hi, c.length - 1);
+			int ones = ones(i, from);
+			for (int w = from; w <= to; w++) {
+				if (w > from) {
+					ones += bit(w + q[i] - 1, i) - bit(w - 1, i);
+				}
+				delta += violation(i, ones) - violation(i, c[w]);
+			}
+		}
+		return delta;
+	}
+
+	// ǰseq[lo, hi]Ӱ쵽д
+	private void commit(int lo, int hi) {
+		for (int i = 0; i < nOptions; i++) {
+			commit(i, Math.max(0, lo - q[i] + 1), Math.min(hi, count[i].length - 1));
+		}
+	}
+
+	private void commit(int i, int from, int to) {
+		int ones = ones(i, from);
+		for (int w = from; w <= to; w++) {
+			if (w > from) {
+				ones += bit(w + q[i] - 1, i) - bit(w - 1, i);
+			}
+			set(i, w, ones);
+		}
+	}
+
+	// wʼĴҪiĳ
+	private int ones(int i, int w) {
+		int ones = 0;
+		for (int k = w; k < w + q[i]; k++) {
+			ones += bit(k, i);
+		}
+		return ones;
+	}
+
+	private int bit(int pos, int i) {
+		return (int) (masks[seq[pos]] >>> i) & 1;
+	}
+
+	private void set(int i, int w, int ones) {
+		int before = violation(i, count[i][w]), after = violation(i, ones);
+		count[i][w] = ones;
+		cost += after - before;
+		int id = offset[i] + w;
+		if (before == 0 && after > 0) {
+			sparse[id] = size;
+			dense[size++] = id;
+		} else if (before > 0 && after == 0) {
+			int k = sparse[id], last = dense[--size];
+			dense[k] = last;
+			sparse[last] = k;
+		}
+	}
+}
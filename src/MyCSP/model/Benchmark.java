@@ -0,0 +1,181 @@
+package MyCSP.model;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.chocosolver.samples.AbstractProblem;
+import org.chocosolver.solver.Solver;
+
+/**
+ * л׼ԣ(ʵ, ڼ)Ϊһ񽻸н̳߳أ
+ * ÿ½Լģͣ״̬
+ * һʵĳγʱ󣬸ʵδʼУԭ˳ѭһ£
+ */
+public class Benchmark {
+
+	private final Supplier<AbstractProblem> factory; // ½һģ
+	private final String[] args; // ÿйõģͲ -d
+	private final int nbThreads;
+	private final float timeout; // ʱ䳬timeoutΪʱ
+
+	public Benchmark(Supplier<AbstractProblem> factory, int nbThreads, float timeout, String... args) {
+		this.factory = factory;
+		this.nbThreads = nbThreads;
+		this.timeout = timeout;
+		this.args = args;
+	}
+
+	/**
+	 * һʵͳƣʱֻͳδʱ
+	 */
+	public static final class Stats {
+		public final String instance;
+		public final int runs; // ʵеĴ
+		public final int timeouts; // ʱ޽⣩Ĵ
+		public final float mean, median, p95;
+
+		Stats(String instance, int runs, int timeouts, float[] times) {
+			this.instance = instance;
+			this.runs = runs;
+			this.timeouts = timeouts;
+			Arrays.sort(times);
+			float sum = 0;
+			for (float t : times) {
+				sum += t;
+			}
+			mean = times.length > 0 ? sum / times.length : Float.NaN;
+			median = percentile(times, 0.5);
+			p95 = percentile(times, 0.95);
+		}
+
+		/**
+		 * ȷٷλtimes
+		 */
+		private static float percentile(float[] times, double p) {
+			if (times.length == 0) {
+				return Float.NaN;
+			}
+			int rank = (int) Math.ceil(p * times.length);
+			return times[Math.max(rank, 1) - 1];
+		}
+	}
+
+	/**
+	 * ʵrepetitions
+	 *
+	 * @return instances˳ͳ
+	 */
+	public List<Stats> run(List<String> instances, int repetitions) throws InterruptedException, ExecutionException {
+		int n = instances.size();
+		AtomicBoolean[] failed = new AtomicBoolean[n];
+		List<List<Future<Float>>> futures = new ArrayList<>(n);
+		ExecutorService pool = Executors.newFixedThreadPool(nbThreads);
+		try {
+			for (int i = 0; i < n; i++) {
+				failed[i] = new AtomicBoolean(false);
+				List<Future<Float>> runs = new ArrayList<>(repetitions);
+				futures.add(runs);
+				for (int j = 0; j < repetitions; j++) {
+					final String instance = instances.get(i);
+					final AtomicBoolean f = failed[i];
+					runs.add(pool.submit(() -> f.get() ? null : runOnce(instance, f)));
+				}
+			}
+			List<Stats> stats = new ArrayList<>(n);
+			for (int i = 0; i < n; i++) {
+				int runs = 0, timeouts = 0;
+				float[] times = new float[repetitions];
+				int size = 0;
+				for (Future<Float> future : futures.get(i)) {
+					Float time = future.get();
+					if (time == null) {
+						continue; // 
+					}
+					runs++;
+					if (time < 0) {
+						timeouts++;
+					} else {
+						times[size++] = time;
+					}
+				}
+				stats.add(new Stats(instances.get(i), runs, timeouts, Arrays.copyOf(times, size)));
+			}
+			return stats;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return ʱ䣨룩ʱ޽ʱΪ-1
+	 */
+	private Float runOnce(String instance, AtomicBoolean failed) {
+		AbstractProblem problem = factory.get();
+		String[] a = Arrays.copyOf(args, args.length + 2);
+		a[args.length] = "-d";
+		a[args.length + 1] = instance;
+		if (!problem.readArgs(a)) {
+			throw new UnsupportedOperationException("ERROR: invalid model arguments: " + Arrays.toString(a));
+		}
+		problem.buildModel();
+		problem.configureSearch();
+		problem.solve();
+		Solver solver = problem.getModel().getSolver();
+		float time = solver.getTimeCount();
+		if (solver.getSolutionCount() == 0 || time > timeout) {
+			failed.set(true);
+			return -1f;
+		}
+		return time;
+	}
+
+	/**
+	 * CSPLibʵ randomXXfrom..to
+	 */
+	public static List<String> randomInstances(int from, int to) {
+		List<String> names = new ArrayList<>();
+		for (int i = from; i <= to; i++) {
+			names.add(i < 10 ? "random0" + i : "random" + i);
+		}
+		return names;
+	}
+
+	public static void print(List<Stats> stats) {
+		DecimalFormat df = new DecimalFormat("0.000");
+		System.out.println("ʵ\t\tʱ\tƽ\tλ\tp95");
+		int passed = 0;
+		float sum = 0.0f;
+		for (Stats s : stats) {
+			System.out.println(s.instance + ":\t" + s.runs + "\t" + s.timeouts + "\t" + df.format(s.mean) + "\t"
+					+ df.format(s.median) + "\t" + df.format(s.p95));
+			if (s.timeouts == 0) {
+				sum += s.mean;
+				passed++;
+			}
+		}
+		System.out.println("ƽֵ:\t" + (passed > 0 ? df.format(sum / passed) : "-"));
+		System.out.println("ͨ:\t" + (float) passed / stats.size());
+	}
+
+	/**
+	 * ÷Benchmark [߳] [ÿʵ] [ʼ] [] [ģͲ...]ģΪSTGCS
+	 *  Benchmark 4 10 1 75 -gcc FLOW
+	 */
+	public static void main(String[] args) throws InterruptedException, ExecutionException {
+		int nbThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		int from = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+		int to = args.length > 3 ? Integer.parseInt(args[3]) : 75;
+		String[] modelArgs = args.length > 4 ? Arrays.copyOfRange(args, 4, args.length) : new String[0];
+		Benchmark bench = new Benchmark(() -> new STGCS(new float[1], 0), nbThreads, 1100, modelArgs);
+		print(bench.run(randomInstances(from, to), repetitions));
+	}
+}
@@ -0,0 +1,93 @@
+package MyCSP.model;
+
+import static MyCSP.heuristic.SequenceSearch.sequenceSearch;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.variables.IntVar;
+
+import MyCSP.constraint.globalcardinality.GlobalCardinality;
+import MyCSP.constraint.sequence.AtMostSeq;
+import MyCSP.heuristic.values.InstanceProfile;
+import MyCSP.model.data.ClassOptions;
+
+/**
+ * һλõSTGCSģͣԼ + AtMostSeq + GCCǰκĳ̶
+ * ԼЩ̶ĳÿĳڸΧڡ
+ * RollingHorizonSegmentDecompositionһ顢һλμĽӷ졣
+ */
+final class BlockModel {
+
+	private BlockModel() {
+	}
+
+	/**
+	 * @param profile p/q/Լֵѡõ
+	 * @param before ǰ̶ĳ
+	 * @param length εĳ
+	 * @param after κ̶ĳ
+	 * @param min ÿٵĳ
+	 * @param max ÿĳ
+	 * @param heuristic ֵѡAGGSA  SU
+	 * @return ڵ࣬ʱûҵʱΪnull
+	 */
+	static int[] solve(InstanceProfile profile, int[] before, int length, int[] after, int[] min, int[] max, String heuristic, long seed,
+			String timeLimit) {
+		ClassOptions configs = profile.getOptions();
+		int nClasses = profile.getNbClasses(), nOptions = profile.getNbOptions();
+		int n = before.length + length + after.length;
+		Model model = new Model("Block");
+		IntVar[] CarSeq = new IntVar[n];
+		for (int k = 0; k < before.length; k++) {
+			CarSeq[k] = model.intVar(before[k]);
+		}
+		IntVar[] free = model.intVarArray("CarSeq", length, 0, nClasses - 1, false);
+		System.arraycopy(free, 0, CarSeq, before.length, length);
+		for (int k = 0; k < after.length; k++) {
+			CarSeq[before.length + length + k] = model.intVar(after[k]);
+		}
+		IntVar[][] cars = model.intVarMatrix("cars", n, nOptions, 0, 1);
+
+		// ԼƾÿһеԼ
+		Tuples tp = new Tuples(true);
+		for (int c = 0; c < nClasses; c++) {
+			int[] row = new int[nOptions + 1];
+			row[0] = c;
+			System.arraycopy(configs.row(c), 0, row, 1, nOptions);
+			tp.add(row);
+		}
+		for (int k = 0; k < n; k++) {
+			IntVar[] row = new IntVar[nOptions + 1];
+			row[0] = CarSeq[k];
+			System.arraycopy(cars[k], 0, row, 1, nOptions);
+			model.table(row, tp).post();
+		}
+		// Լǰκĳ
+		for (int i = 0; i < nOptions; i++) {
+			IntVar[] column = new IntVar[n];
+			for (int k = 0; k < n; k++) {
+				column[k] = cars[k][i];
+			}
+			new AtMostSeq(column, profile.getP(i), profile.getQ(i)).post();
+		}
+		// ÿĳ
+		int[] values = new int[nClasses];
+		IntVar[] cards = new IntVar[nClasses];
+		for (int c = 0; c < nClasses; c++) {
+			values[c] = c;
+			cards[c] = model.intVar("var_" + c, min[c], Math.min(max[c], length), false);
+		}
+		new GlobalCardinality(free, values, cards).post();
+
+		model.getSolver().setSearch(sequenceSearch(free, heuristic, seed, profile));
+		model.getSolver().limitTime(timeLimit);
+		if (!model.getSolver().solve()) {
+			return null;
+		}
+		int[] block = new int[length];
+		for (int k = 0; k < length; k++) {
+			block[k] = free[k].getValue();
+		}
+		return block;
+	}
+}
@@ -29,16 +29,18 @@
  */
 package MyCSP.model;
 
-import org.chocosolver.samples.AbstractProblem;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.variables.IntVar;
 import org.kohsuke.args4j.Option;
 
-import java.util.Scanner;
 
+import static MyCSP.heuristic.SequenceSearch.sequenceSearch;
 import static org.chocosolver.solver.search.strategy.Search.MyHeuristicSearch;
 //import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
 
+import MyCSP.constraint.globalcardinality.GlobalCardinality;
+import MyCSP.constraint.sequence.AtMostSeq;
+import MyCSP.heuristic.values.InstanceProfile;
 import MyCSP.model.data.DataSet.*;
 
 /**
@@ -60,56 +62,56 @@ import MyCSP.model.data.DataSet.*;
  * @author Charles Prud'homme
  * @since 03/08/11
  */
-public class CarSequencing extends AbstractProblem {
+public class CarSequencing extends CarSequencingProblem {
 
 	@Option(name = "-d", aliases = "--data", usage = "Car sequencing data.", required = false)
 //	Data data = Data.P4_72;
 	CSPLib data = CSPLib.random09;
 //	MyData data = MyData.md05;
 
+	@Option(name = "-gcc", usage = "GCC filtering: FAST or FLOW.", required = false)
+	String gcc = GlobalCardinality.FAST;
+
+	@Option(name = "-vh", aliases = "--value-heuristic", usage = "Value heuristic of the sequence search: AGG, SA or SU (default: MyHeuristicSearch).", required = false)
+	String heuristic = null;
+
+	@Option(name = "-seed", usage = "Random seed of the value heuristic.", required = false)
+	long seed = 0;
+
 	IntVar[] cars;
 
-	int nCars, nClasses, nOptions;
+	int[][] options; // ÿ
 
-	int[] demands;
-	int[][] optfreq, matrix, options, idleConfs;
+	@Override
+	String source() {
+		return data.source();
+	}
 
 	@Override
 	public void buildModel() {
 		model = new Model("CarSequencing");
-		parse(data.source());
-		// System.out.println(data.source());
-		prepare();
+		loadInstance();
+		options = new int[nOptions][];
+		for (int i = 0; i < nOptions; i++) {
+			options[i] = instance.getClassesWith(i);
+		}
 		int max = nClasses - 1;
 		cars = model.intVarArray("cars", nCars, 0, max, false);
 		IntVar[] expArray = new IntVar[nClasses];
 
+		// ÿһԼÿqpoptions[optNum]е࣬ǰһڵд
+		// ŻģʽΪΥȣΥ֮С
+		IntVar[] soft = new IntVar[options.length];
 		for (int optNum = 0; optNum < options.length; optNum++) {
-			int nbConf = options[optNum].length;
-			for (int seqStart = 0; seqStart < (cars.length - optfreq[optNum][1]); seqStart++) {
-				IntVar[] carSequence = extractor(cars, seqStart, optfreq[optNum][1]);
-
-				// configurations that include given option may be chosen
-				IntVar[] atMost = new IntVar[nbConf];
-				for (int i = 0; i < nbConf; i++) {
-					// optfreq[optNum][0] times AT MOST
-					atMost[i] = model.intVar("atmost_" + optNum + "_" + seqStart + "_" + nbConf, 0, optfreq[optNum][0],
-							true);
-				}
-				// System.out.println(atMost[0].getName()+":
-				// "+atMost[0].getLB()+"--"+atMost[0].getUB());
-				model.globalCardinality(carSequence, options[optNum], atMost, false).post();
-
-				IntVar[] atLeast = model.intVarArray("atleast_" + optNum + "_" + seqStart, idleConfs[optNum].length, 0,
-						max, true);
-				model.globalCardinality(carSequence, idleConfs[optNum], atLeast, false).post();
-
-				// all others configurations may be chosen
-				IntVar sum = model.intVar("sum", optfreq[optNum][1] - optfreq[optNum][0], 99999999, true);
-				model.sum(atLeast, "=", sum).post();
-				// System.out.println(sum);
+			if (optimize) {
+				soft[optNum] = softWindows(cars, options[optNum], optfreq[optNum][0], optfreq[optNum][1], "violations_" + optNum);
+			} else {
+				new AtMostSeq(cars, options[optNum], optfreq[optNum][0], optfreq[optNum][1]).post();
 			}
 		}
+		if (optimize) {
+			minimizeViolations(soft);
+		}
 
 		int[] values = new int[expArray.length];
 		for (int i = 0; i < expArray.length; i++) {
@@ -118,29 +120,33 @@ public class CarSequencing extends AbstractProblem {
 			// System.out.println(expArray[i]+" "+values[i]);
 		}
 
-		model.globalCardinality(cars, values, expArray, false).post();
-	}
-
-	private static IntVar[] extractor(IntVar[] cars, int initialNumber, int amount) {
-		if ((initialNumber + amount) > cars.length) {
-			amount = cars.length - initialNumber;
-		}
-		IntVar[] tmp = new IntVar[amount];
-		System.arraycopy(cars, initialNumber, tmp, 0, initialNumber + amount - initialNumber);
-		return tmp;
+		new GlobalCardinality(cars, values, expArray, gcc).post();
 	}
 
 	@Override
 	public void configureSearch() {
 
-		model.getSolver().setSearch(MyHeuristicSearch(cars, matrix, optfreq, demands));
-		model.getSolver().limitTime("20m");
+		if (heuristic == null) {
+			model.getSolver().setSearch(MyHeuristicSearch(cars, matrix, optfreq, demands));
+		} else {
+			model.getSolver().setSearch(sequenceSearch(cars, heuristic, seed, new InstanceProfile(configs, optfreq, demands)));
+		}
+		model.getSolver().limitTime(timeLimit("20m"));
 	}
 
 	@Override
 	public void solve() {
-		model.getSolver().solve();
+		int[] found = null;
+		if (optimize) {
+			found = minimize(cars, seed);
+		} else {
+			model.getSolver().solve();
+			found = repair(cars, seed);
+		}
         model.getSolver().printStatistics();
+		if (found != null) {
+			printSequence(cars, found);
+		}
 //        for (int i = 0; i < nCars;i++) {
 //            System.out.println(model.getVars()[i]);
 //        }
@@ -155,77 +161,6 @@ public class CarSequencing extends AbstractProblem {
 		new CarSequencing().execute(args);
 	}
 
-	private int[][] parse(String source) {
-		int[][] data = null;
-		Scanner sc = new Scanner(source);
-		nCars = sc.nextInt();
-		nOptions = sc.nextInt();
-		nClasses = sc.nextInt();
-
-		optfreq = new int[nOptions][2];
-		// get frequencies
-		for (int i = 0; i < nOptions; i++) {
-			optfreq[i][0] = sc.nextInt();
-		}
-		for (int i = 0; i < nOptions; i++) {
-			optfreq[i][1] = sc.nextInt();
-		}
-
-		// get the demand and options
-		demands = new int[nClasses];
-		matrix = new int[nClasses][nOptions];
-		for (int i = 0; i < nClasses; i++) {
-			sc.nextInt();
-			demands[i] = sc.nextInt();
-			for (int j = 0; j < nOptions; j++) {
-				matrix[i][j] = sc.nextInt();
-			}
-		}
-		sc.close();
-		return data;
-	}
-
-	private void prepare() {
-		options = new int[nOptions][];
-		idleConfs = new int[nOptions][];
-		for (int i = 0; i < matrix[0].length; i++) {
-			int nbNulls = 0;
-			int nbOnes = 0;
-			for (int j = 0; j < matrix.length; j++) {
-				if (matrix[j][i] == 1)
-					nbOnes++;
-				else
-					nbNulls++;
-			}
-			options[i] = new int[nbOnes];
-			idleConfs[i] = new int[nbNulls];
-			int countOnes = 0;
-			int countNulls = 0;
-			for (int j = 0; j < matrix.length; j++) {
-				if (matrix[j][i] == 1) {
-					options[i][countOnes] = j;
-					countOnes++;
-				} else {
-					idleConfs[i][countNulls] = j;
-					countNulls++;
-				}
-			}
-		}
-		/*
-		 * for (int j = 0; j < options.length; j++) { for (int i = 0;i <
-		 * options[j].length; i++) { System.out.print(options[j][i] +"  "); }
-		 * System.out.println(); } System.out.println("================="); for (int j =
-		 * 0; j < idleConfs.length; j++) { for (int i = 0;i < idleConfs[j].length; i++)
-		 * { System.out.print(idleConfs[j][i] +"  "); } System.out.println(); }
-		 */
-//		for (int j = 0; j < optfreq.length; j++) {
-//			for (int i = 0; i < optfreq[j].length; i++) {
-//				System.out.print(optfreq[j][i] + "  ");
-//			}
-//			System.out.println();
-//		}
-	}
-
 	/////////////////////////////////// DATA
 	/////////////////////////////////// //////////////////////////////////////////////////
 
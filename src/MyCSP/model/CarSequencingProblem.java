@@ -0,0 +1,168 @@
+package MyCSP.model;
+
+import java.util.Arrays;
+
+import org.chocosolver.samples.AbstractProblem;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.move.MoveLNS;
+import org.chocosolver.solver.variables.IntVar;
+import org.kohsuke.args4j.Option;
+
+import MyCSP.heuristic.WindowNeighborhood;
+import MyCSP.heuristic.values.InstanceProfile;
+import MyCSP.localsearch.GreedyConstruction;
+import MyCSP.localsearch.LocalSearch;
+import MyCSP.localsearch.WindowViolations;
+import MyCSP.model.data.CarSequencingInstance;
+import MyCSP.model.data.ClassOptions;
+import MyCSP.model.data.InstanceReader;
+
+/**
+ * ģ͵Ĺ֣ȡʵ-f ļ -d ݣȡģõ顣
+ * DataSetеֻһΣظкͶ߳йͬһʵ
+ */
+public abstract class CarSequencingProblem extends AbstractProblem {
+
+	@Option(name = "-f", aliases = "--file", usage = "Car sequencing data file, CSPLib text or binary format, instead of -d.", required = false)
+	String file = null;
+
+	@Option(name = "-tl", aliases = "--time-limit", usage = "Time limit of the CP search, e.g. 30s (default: the model's own limit).", required = false)
+	String timeLimit = null;
+
+	@Option(name = "-ls", aliases = "--local-search", usage = "Seconds of local search repair when the CP search stops without a solution (0: off).", required = false)
+	int repairSeconds = 0;
+
+	@Option(name = "-opt", aliases = "--optimize", usage = "Soften the p/q windows and minimize the total violation, reporting each improving sequence.", required = false)
+	boolean optimize = false;
+
+	@Option(name = "-lns", usage = "Large neighborhood search over windows of the sequence (implies -opt).", required = false)
+	boolean lns = false;
+
+	CarSequencingInstance instance;
+
+	int nCars, nClasses, nOptions;
+
+	int[] demands;
+	int[][] optfreq, matrix;
+	ClassOptions configs; // λʾ/
+
+	IntVar violations; // ŻģʽдڵΥ֮
+	int[] best; // ŻģʽĿǰΥС
+
+	/**
+	 * @return -d ѡݵCSPLibʽַ
+	 */
+	abstract String source();
+
+	void loadInstance() {
+		optimize |= lns; // LNSҪĿ꺯
+		instance = file != null ? InstanceReader.load(file) : InstanceReader.cached(source());
+		nCars = instance.getNbCars();
+		nOptions = instance.getNbOptions();
+		nClasses = instance.getNbClasses();
+		optfreq = instance.getOptfreq();
+		demands = instance.getDemands();
+		matrix = instance.getMatrix();
+		configs = instance.getClassOptions();
+	}
+
+	String timeLimit(String byDefault) {
+		return timeLimit != null ? timeLimit : byDefault;
+	}
+
+	/**
+	 * CPֹͣûҵʱѸֵıֲ䡢λ̰Ĳȫֲ޸
+	 *
+	 * @return ޸Уδ -ls CPҵʱΪnull
+	 */
+	int[] repair(IntVar[] seq, long seed) {
+		if (repairSeconds <= 0 || model.getSolver().getSolutionCount() > 0) {
+			return null;
+		}
+		int[] start = GreedyConstruction.build(instance, GreedyConstruction.partial(seq), seed);
+		LocalSearch ls = new LocalSearch(instance, seed);
+		int[] result = ls.run(start, repairSeconds * 1000L, Long.MAX_VALUE);
+		System.out.println("ֲ޸Υ " + ls.getBestCost() + "" + ls.getIterations() + " ");
+		return result;
+	}
+
+	/**
+	 * ӡminimizerepairصмΥȡʱѻݣֻܴӷصȡ
+	 */
+	void printSequence(IntVar[] seq, int[] values) {
+		for (int k = 0; k < seq.length; k++) {
+			System.out.println(seq[k].getName() + " = " + values[k]);
+		}
+		System.out.println("Υ " + new WindowViolations(instance, values).cost());
+	}
+
+	/**
+	 * p/qԼÿwʼqĴһΥȱ max(0, ȡֵvaluesĳ - p)
+	 *
+	 * @return ЩڵΥ֮
+	 */
+	IntVar softWindows(IntVar[] vars, int[] values, int p, int q, String name) {
+		int n = vars.length;
+		q = Math.min(q, n); // qʱֻһ
+		int excess = Math.max(0, q - p);
+		IntVar zero = model.intVar(0);
+		IntVar[] viol = new IntVar[n - q + 1];
+		for (int w = 0; w < viol.length; w++) {
+			IntVar count = model.intVar(name + "_n[" + w + "]", 0, q);
+			model.among(count, Arrays.copyOfRange(vars, w, w + q), values).post();
+			viol[w] = model.intVar(name + "_v[" + w + "]", 0, excess);
+			model.max(viol[w], zero, model.intOffsetView(count, -p)).post();
+		}
+		IntVar total = model.intVar(name, 0, viol.length * excess);
+		model.sum(viol, "=", total).post();
+		return total;
+	}
+
+	/**
+	 * ԸΥ֮ΪĿ꣬С
+	 */
+	void minimizeViolations(IntVar[] perOption) {
+		int ub = 0;
+		for (IntVar v : perOption) {
+			ub += v.getUB();
+		}
+		violations = model.intVar("violations", 0, ub);
+		model.sum(perOption, "=", violations).post();
+		model.setObjective(Model.MINIMIZE, violations);
+	}
+
+	/**
+	 * ֧磺ÿҵһΥȸСоͼ¼ӡֱ֤ŻֹͣʱֹͣĿǰõС
+	 *  -lns ʱ̰ĹУͬʱ -ls ʱپֲÿʧ100һΣ
+	 * ֻſWindowNeighborhoodѡλãصҵһС
+	 *
+	 * @return ΥСУûҵʱΪnull
+	 */
+	int[] minimize(IntVar[] seq, long seed) {
+		Solver solver = model.getSolver();
+		solver.makeCompleteStrategy(true); // ֮ıҲҪֵΥȲȷ
+		if (lns) {
+			solver.setLNS(new WindowNeighborhood(seq, new InstanceProfile(configs, optfreq, demands), seed), new FailCounter(model, 100));
+			int[] init = GreedyConstruction.build(instance, seed);
+			if (repairSeconds > 0) {
+				init = new LocalSearch(instance, seed).run(init, repairSeconds * 1000L, Long.MAX_VALUE);
+			}
+			Solution start = new Solution(model, seq);
+			for (int k = 0; k < seq.length; k++) {
+				start.setIntVal(seq[k], init[k]);
+			}
+			((MoveLNS) solver.getMove()).loadFromSolution(start, solver);
+		}
+		while (solver.solve()) {
+			best = new int[seq.length];
+			for (int k = 0; k < seq.length; k++) {
+				best[k] = seq[k].getValue();
+			}
+			System.out.println("Υ " + violations.getValue() + "" + solver.getTimeCount() + "s");
+		}
+		return best;
+	}
+}
@@ -1,20 +1,20 @@
 
 package MyCSP.model;
 
-import org.chocosolver.samples.AbstractProblem;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.variables.IntVar;
 import org.kohsuke.args4j.Option;
 
 import java.util.List;
-import java.util.Scanner;
 
 import static org.chocosolver.solver.search.strategy.Search.MyHeuristicSearch;
 //import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
 
+import MyCSP.constraint.globalcardinality.GlobalCardinality;
+import MyCSP.constraint.sequence.AtMostSeq;
 import MyCSP.model.data.DataSet.*;
 
-public class CheckForCS extends AbstractProblem {
+public class CheckForCS extends CarSequencingProblem {
 	
 	private String[] check;
 	public List<String> sf;
@@ -30,19 +30,30 @@ public class CheckForCS extends AbstractProblem {
 	CSPLib data = CSPLib.valueOf("random19");
 //	MyData data = MyData.md05;
 
+	@Option(name = "-gcc", usage = "GCC filtering: FAST or FLOW.", required = false)
+	String gcc = GlobalCardinality.FAST;
+
 	IntVar[] cars;
 
-	int nCars, nClasses, nOptions;
+	int[][] options; // ÿ
 
-	int[] demands;
-	int[][] optfreq, matrix, options, idleConfs;
+	@Override
+	String source() {
+		return data.source();
+	}
 
 	@Override
 	public void buildModel() {
+		// ֻУŻ޸
+		if (optimize || lns || repairSeconds > 0) {
+			throw new UnsupportedOperationException("ERROR: CheckForCS does not support -opt, -lns or -ls");
+		}
 		model = new Model("CarSequencing");
-		parse(data.source());
-		// System.out.println(data.source());
-		prepare();
+		loadInstance();
+		options = new int[nOptions][];
+		for (int i = 0; i < nOptions; i++) {
+			options[i] = instance.getClassesWith(i);
+		}
 		// 飬֤һǷϷ
 
 		int ri = 2, rj = 0;
@@ -54,7 +65,6 @@ public class CheckForCS extends AbstractProblem {
 			ri += 3;
 		}
 
-		int max = nClasses - 1;
 //		cars = model.intVarArray(nCars, array);
 		cars = new IntVar[nCars];
 		for(int ci = 0;ci < nCars;ci++) {
@@ -63,31 +73,9 @@ public class CheckForCS extends AbstractProblem {
 
 		IntVar[] expArray = new IntVar[nClasses];
 
+		// ÿһԼÿqpoptions[optNum]е࣬ǰһڵд
 		for (int optNum = 0; optNum < options.length; optNum++) {
-			int nbConf = options[optNum].length;
-			for (int seqStart = 0; seqStart < (cars.length - optfreq[optNum][1]); seqStart++) {
-				IntVar[] carSequence = extractor(cars, seqStart, optfreq[optNum][1]);
-
-				// configurations that include given option may be chosen
-				IntVar[] atMost = new IntVar[nbConf];
-				for (int i = 0; i < nbConf; i++) {
-					// optfreq[optNum][0] times AT MOST
-					atMost[i] = model.intVar("atmost_" + optNum + "_" + seqStart + "_" + nbConf, 0, optfreq[optNum][0],
-							true);
-				}
-				// System.out.println(atMost[0].getName()+":
-				// "+atMost[0].getLB()+"--"+atMost[0].getUB());
-				model.globalCardinality(carSequence, options[optNum], atMost, false).post();
-
-				IntVar[] atLeast = model.intVarArray("atleast_" + optNum + "_" + seqStart, idleConfs[optNum].length, 0,
-						max, true);
-				model.globalCardinality(carSequence, idleConfs[optNum], atLeast, false).post();
-
-				// all others configurations may be chosen
-				IntVar sum = model.intVar("sum", optfreq[optNum][1] - optfreq[optNum][0], 99999999, true);
-				model.sum(atLeast, "=", sum).post();
-				// System.out.println(sum);
-			}
+			new AtMostSeq(cars, options[optNum], optfreq[optNum][0], optfreq[optNum][1]).post();
 		}
 
 		int[] values = new int[expArray.length];
@@ -97,23 +85,14 @@ public class CheckForCS extends AbstractProblem {
 			// System.out.println(expArray[i]+" "+values[i]);
 		}
 
-		model.globalCardinality(cars, values, expArray, false).post();
-	}
-
-	private static IntVar[] extractor(IntVar[] cars, int initialNumber, int amount) {
-		if ((initialNumber + amount) > cars.length) {
-			amount = cars.length - initialNumber;
-		}
-		IntVar[] tmp = new IntVar[amount];
-		System.arraycopy(cars, initialNumber, tmp, 0, initialNumber + amount - initialNumber);
-		return tmp;
+		new GlobalCardinality(cars, values, expArray, gcc).post();
 	}
 
 	@Override
 	public void configureSearch() {
 
 		model.getSolver().setSearch(MyHeuristicSearch(cars, matrix, optfreq, demands));
-		model.getSolver().limitTime("20m");
+		model.getSolver().limitTime(timeLimit("20m"));
 	}
 
 	@Override
@@ -138,79 +117,6 @@ public class CheckForCS extends AbstractProblem {
 		 */
 	}
 
-
-
-	private int[][] parse(String source) {
-		int[][] data = null;
-		Scanner sc = new Scanner(source);
-		nCars = sc.nextInt();
-		nOptions = sc.nextInt();
-		nClasses = sc.nextInt();
-
-		optfreq = new int[nOptions][2];
-		// get frequencies
-		for (int i = 0; i < nOptions; i++) {
-			optfreq[i][0] = sc.nextInt();
-		}
-		for (int i = 0; i < nOptions; i++) {
-			optfreq[i][1] = sc.nextInt();
-		}
-
-		// get the demand and options
-		demands = new int[nClasses];
-		matrix = new int[nClasses][nOptions];
-		for (int i = 0; i < nClasses; i++) {
-			sc.nextInt();
-			demands[i] = sc.nextInt();
-			for (int j = 0; j < nOptions; j++) {
-				matrix[i][j] = sc.nextInt();
-			}
-		}
-		sc.close();
-		return data;
-	}
-
-	private void prepare() {
-		options = new int[nOptions][];
-		idleConfs = new int[nOptions][];
-		for (int i = 0; i < matrix[0].length; i++) {
-			int nbNulls = 0;
-			int nbOnes = 0;
-			for (int j = 0; j < matrix.length; j++) {
-				if (matrix[j][i] == 1)
-					nbOnes++;
-				else
-					nbNulls++;
-			}
-			options[i] = new int[nbOnes];
-			idleConfs[i] = new int[nbNulls];
-			int countOnes = 0;
-			int countNulls = 0;
-			for (int j = 0; j < matrix.length; j++) {
-				if (matrix[j][i] == 1) {
-					options[i][countOnes] = j;
-					countOnes++;
-				} else {
-					idleConfs[i][countNulls] = j;
-					countNulls++;
-				}
-			}
-		}
-		/*
-		 * for (int j = 0; j < options.length; j++) { for (int i = 0;i <
-		 * options[j].length; i++) { System.out.print(options[j][i] +"  "); }
-		 * System.out.println(); } System.out.println("================="); for (int j =
-		 * 0; j < idleConfs.length; j++) { for (int i = 0;i < idleConfs[j].length; i++)
-		 * { System.out.print(idleConfs[j][i] +"  "); } System.out.println(); }
-		 */
-//		for (int j = 0; j < optfreq.length; j++) {
-//			for (int i = 0; i < optfreq[j].length; i++) {
-//				System.out.print(optfreq[j][i] + "  ");
-//			}
-//			System.out.println();
-//		}
-	}
-
 	/////////////////////////////////// DATA
 	/////////////////////////////////// //////////////////////////////////////////////////
 
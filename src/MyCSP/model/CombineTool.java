@@ -1,63 +1,80 @@
 package MyCSP.model;
 
-import java.util.ArrayList;
-import java.util.List;
+/**
+ * ɣ{0, ..., m-1}ӼССͬСֵ
+ * ɣֱд밴Ԥȷõ飬ݹ顢װ䡣
+ */
+public final class CombineTool {
 
-public class CombineTool {
+	private CombineTool() {
+	}
 
-	
-	public int[][] genResult(int n,int m){
-		List<Integer> data = new ArrayList<Integer>();
-		for (int i = 0; i < m; i++) {
-			data.add(i);
-		}
-		for (int i = 1; i <=n; i++)
-			combinerSelect(data, new ArrayList<Integer>(), data.size(), i);
-		
-		int[][] re=new int[0][0];
-		re=result.toArray(re);
+	/**
+	 * @return {0, ..., m-1}дСΪ1nӼÿӼΪ±
+	 */
+	public static int[][] genResult(int n, int m) {
+		int kmax = Math.min(n, m);
+		long total = 0;
+		for (int k = 1; k <= kmax; k++) {
+			total += count(m, k);
+		}
+		if (total > Integer.MAX_VALUE - 8) {
+			throw new UnsupportedOperationException("ERROR: too many combinations: " + total);
+		}
+		int[][] re = new int[(int) total][];
+		int from = 0;
+		for (int k = 1; k <= kmax; k++) {
+			from = combinations(m, k, re, from);
+		}
 		return re;
 	}
 
 	/**
-	 * 裺ÿεݹʱԭʼݺĹռ临һݣеĲڸļнУĿľǱ֤ƻԭʼݣ
-	 * Ӷһֵݹһ֡
-	 * ΣݵĵһԪӵռУжϹռĴССk,Ҫݹ飬ʱݹ麯
-	 * Ҫע⣺赱ǰĽڵ±i,Ϊ˳,i֮ǰݶӦȥֻi֮δʹùݡ
-	 * ڴ֮ǰӦöcopydataԴkʱѾҵĵһȻֻ޸ĸһɡ
-	 * 磺ҵabcʱֻ滻cΪdɸֵݹ顣
-	 * 
-	 * @param data
-	 *            ԭʼ
-	 * @param workSpace
-	 *            Զһʱռ䣬洢ÿηֵ
-	 * @param k
-	 *            C(n,k)еk
+	 * {0, ..., m-1}kԪӼֵдout[from]ʼλ
+	 *
+	 * @return һλ
 	 */
-	public <E> void combinerSelect(List<E> data, List<E> workSpace, int n, int k) {
-		List<E> copyData;
-		List<E> copyWorkSpace;
-
-		if (workSpace.size() == k) {
-			int[] tp=new int[k];
-			for(int i=0;i<k;i++){
-				tp[i]=(int)workSpace.get(i);
+	public static int combinations(int m, int k, int[][] out, int from) {
+		if (k > m) {
+			return from;
+		}
+		int[] c = new int[k];
+		for (int i = 0; i < k; i++) {
+			c[i] = i;
+		}
+		while (true) {
+			out[from++] = c.clone();
+			// ұ߻λãν
+			int i = k - 1;
+			while (i >= 0 && c[i] == m - k + i) {
+				i--;
+			}
+			if (i < 0) {
+				return from;
+			}
+			c[i]++;
+			for (int j = i + 1; j < k; j++) {
+				c[j] = c[j - 1] + 1;
 			}
-			result.add(tp);
 		}
+	}
 
-		for (int i = 0; i < data.size(); i++) {
-			copyData = new ArrayList<E>(data);
-			copyWorkSpace = new ArrayList<E>(workSpace);
-
-			copyWorkSpace.add(copyData.get(i));
-			for (int j = i; j >= 0; j--)
-				copyData.remove(j);
-			combinerSelect(copyData, copyWorkSpace, n, k);
+	/**
+	 * @return C(m, k)longΧʱΪLong.MAX_VALUE
+	 */
+	public static long count(int m, int k) {
+		if (k < 0 || k > m) {
+			return 0;
 		}
-
+		k = Math.min(k, m - k);
+		long c = 1;
+		for (int i = 1; i <= k; i++) {
+			// c * (m - k + i) / i 
+			if (c > Long.MAX_VALUE / (m - k + i)) {
+				return Long.MAX_VALUE;
+			}
+			c = c * (m - k + i) / i;
+		}
+		return c;
 	}
-	
-	ArrayList<int[]> result=new ArrayList<int[]>();
-
-}
\ No newline at end of file
+}
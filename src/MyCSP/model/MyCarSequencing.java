@@ -1,21 +1,22 @@
 
 package MyCSP.model;
 
-import org.chocosolver.samples.AbstractProblem;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.variables.IntVar;
 import org.kohsuke.args4j.Option;
 
+import MyCSP.constraint.globalcardinality.GlobalCardinality;
+import MyCSP.heuristic.values.InstanceProfile;
 import MyCSP.model.data.DataSet.*;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
+import static MyCSP.heuristic.SequenceSearch.sequenceSearch;
 import static org.chocosolver.solver.search.strategy.Search.MyHeuristicSearch;
 
-public class MyCarSequencing extends AbstractProblem {
+public class MyCarSequencing extends CarSequencingProblem {
 	private List<String> result;
 	public MyCarSequencing(List<String> rtmp) {
 		// TODO Auto-generated constructor stub
@@ -27,22 +28,40 @@ public class MyCarSequencing extends AbstractProblem {
 //	Data data = Data.P4_72;
 //	MyData data = MyData.md;
 //
+	@Option(name = "-gcc", usage = "GCC filtering: FAST or FLOW.", required = false)
+	String gcc = GlobalCardinality.FAST;
+
+	/**
+	 * ÿqֿ飬 + tableԼڿ֮ԪtableԼ
+	 */
+	static final String TABLE = "TABLE";
+	/**
+	 * ÿһregularԼԶ״̬Ϊq-1λ
+	 */
+	static final String REGULAR = "REGULAR";
+
+	@Option(name = "-enc", aliases = "--encoding", usage = "Encoding of the option windows: TABLE or REGULAR.", required = false)
+	String encoding = TABLE;
+
+	@Option(name = "-vh", aliases = "--value-heuristic", usage = "Value heuristic of the sequence search: AGG, SA or SU (default: MyHeuristicSearch).", required = false)
+	String heuristic = null;
+
+	@Option(name = "-seed", usage = "Random seed of the value heuristic.", required = false)
+	long seed = 0;
+
 	IntVar[] CarSeq;
 	IntVar[][] cars;
 
-	int nCars, nClasses, nOptions;
-
-	int[] demands;
-	int[][] optfreq, matrix;
+	@Override
+	String source() {
+		return data.source();
+	}
 
 	@Override
 	public void buildModel() {
 		model = new Model("CarSequencing");
-		parse(data.source());
-		int[] darray = new int[nOptions];
-		for(int i = 0;i< nOptions;i++) {
-			darray[i] = dscompute(matrix, i);
-		}
+		loadInstance();
+		int[] darray = instance.getOptionDemands(); // һ
 
 		int max = nClasses - 1;
 		CarSeq = model.intVarArray("CarSeq", nCars, 0, max, false);
@@ -53,9 +72,7 @@ public class MyCarSequencing extends AbstractProblem {
 		for (int i = 0; i < nClasses; i++) {
 			int[] row = new int[nOptions + 1];
 			row[0] = i;
-			for (int j = 0; j < nOptions; j++) {
-				row[j + 1] = matrix[i][j];
-			}
+			System.arraycopy(configs.row(i), 0, row, 1, nOptions);
 			tp.add(row);
 		}
 		for (int i = 0; i < nCars; i++) {
@@ -71,57 +88,42 @@ public class MyCarSequencing extends AbstractProblem {
 		// model.table(cars[i], tp).post();
 		// }
 
+		IntVar[] soft = new IntVar[nOptions];
 		for (int i = 0; i < nOptions; i++) {
 			
 
 			
-			//tableģ
 			int n = optfreq[i][0];
 			int m = optfreq[i][1];
-			int[][] tps = geneAllowedTuple(n, m);
-			Tuples facTuple = geneFactorTuples(tps);
-
-			Tuples binTuple = geneConnection(tps, tps, n, m);
-
-			int res = nCars % m;
-			int facNum = nCars / m;
-			if (res != 0) {
-				facNum++;
-			}
-			IntVar[] facVars = new IntVar[facNum];
-			for (int j = 0; j < nCars / m; j++) {
-				IntVar[] column1 = new IntVar[m + 1];
-				for (int k = 0; k < m; k++) {
-					column1[k] = cars[j * m + k][i];
+			if (optimize) {
+				// Żģʽ´ԼΪΥȣʹ-encı
+				soft[i] = softWindows(extractor(cars, 0, nCars, i), new int[] { 1 }, n, m, "violations_" + i);
+			} else {
+				switch (encoding) {
+					case TABLE:
+						if (WindowTuples.fits(n, m)) {
+							postWindowTables(i, n, m);
+						} else {
+							// ԪĴСpq󴰿ڸregular
+							System.out.println("" + i + "Ĵ " + n + "/" + m + " Ԫ࣬regular");
+							model.regular(extractor(cars, 0, nCars, i), WindowAutomaton.get(n, m)).post();
+						}
+						break;
+					case REGULAR:
+						model.regular(extractor(cars, 0, nCars, i), WindowAutomaton.get(n, m)).post();
+						break;
+					default:
+						throw new UnsupportedOperationException("ERROR: unknown encoding: " + encoding);
 				}
-				facVars[j] = model.intVar("B[" + i + "][" + j + "]", 0, tps.length - 1);
-				column1[m] = facVars[j];
-				model.table(column1, facTuple, "CT+").post();
-			}
-			for (int j = 0; j < nCars / m - 1; j++) {
-				model.table(facVars[j], facVars[j + 1], binTuple, "AC3bit+rm").post();
 			}
 
-			if (res != 0) {
-				int[][] rtps = geneAllowedTuple(n, res);
-				Tuples rtp = geneFactorTuples(rtps);
-				facVars[facNum - 1] = model.intVar("B[" + i + "][" + (facNum - 1) + "]", 0, rtps.length - 1);
-
-				IntVar[] column = new IntVar[res + 1];
-				for (int k = 0; k < res; k++) {
-					column[k] = cars[(facNum - 1) * m + k][i];
-				}
-				column[res] = facVars[facNum - 1];
-				model.table(column, rtp, "CT+").post();
-
-				Tuples rbinT = geneConnection(tps, rtps, n, m);
-				model.table(facVars[facNum - 2], facVars[facNum - 1], rbinT, "AC3bit+rm").post();
-			}
-			
 			//ÿԼ
 			IntVar[] sumarray = extractor(cars,0,nCars,i);
 			model.sum(sumarray, "=",darray[i]).post();
 		}
+		if (optimize) {
+			minimizeViolations(soft);
+		}
 
 
 		
@@ -132,77 +134,48 @@ public class MyCarSequencing extends AbstractProblem {
 			expArray[i] = model.intVar("var_" + i, 0, demands[i], false);
 			values[i] = i;
 		}
-		model.globalCardinality(CarSeq, values, expArray, false).post();
+		new GlobalCardinality(CarSeq, values, expArray, gcc).post();
 
 	}
 	
-	public Tuples geneFactorTuples(int[][] tuples) {
-		int m = tuples.length;
-		int n = tuples[0].length;
-		int[][] factorTuples = new int[m][n + 1];
-		for (int j = 0; j < m; j++) {
-			for (int k = 0; k < n; k++) {
-				factorTuples[j][k] = tuples[j][k];
+	//tableģimn
+	private void postWindowTables(int i, int n, int m) {
+		WindowTuples full = WindowTuples.get(n, m, 0);
+
+		int res = nCars % m;
+		int facNum = nCars / m;
+		if (res != 0) {
+			facNum++;
+		}
+		IntVar[] facVars = new IntVar[facNum];
+		for (int j = 0; j < nCars / m; j++) {
+			IntVar[] column1 = new IntVar[m + 1];
+			for (int k = 0; k < m; k++) {
+				column1[k] = cars[j * m + k][i];
 			}
-			factorTuples[j][n] = j;
+			facVars[j] = model.intVar("B[" + i + "][" + j + "]", 0, full.size() - 1);
+			column1[m] = facVars[j];
+			model.table(column1, full.factor(), "CT+").post();
 		}
-		Tuples facTuple = new Tuples(true);
-		facTuple.add(factorTuples);
-		return facTuple;
-	}
-
-	public Tuples geneConnection(int[][] tps1, int[][] tps2, int n, int m) {
-		ArrayList<int[]> list = new ArrayList<int[]>(m * n);
-		for (int i = 0; i < tps1.length; i++) {
-			int[] t1 = tps1[i];
-			for (int j = 0; j < tps2.length; j++) {
-				int[] t2 = tps2[j];
-				boolean conflict = false;
-				for (int k = 1; k < m; k++) {
-					int num = 0;
-					for (int p = k; p < m; p++) {
-						num += t1[p];
-					}
-					int tt1 = tps2[0].length;
-					tt1 = tt1 > k ? k : tt1;
-					for (int q = 0; q < tt1; q++) {
-						num += t2[q];
-					}
-					if (num > n) {
-						conflict = true;
-
-					}
-				}
-				if (!conflict) {
-					int[] tt = new int[2];
-					tt[0] = i;
-					tt[1] = j;
-					list.add(tt);
-				}
-			}
+		for (int j = 0; j < nCars / m - 1; j++) {
+			model.table(facVars[j], facVars[j + 1], full.connection(), "AC3bit+rm").post();
 		}
-		int[][] binary = new int[0][0];
-		binary = list.toArray(binary);
-		Tuples facTuple = new Tuples(true);
-		facTuple.add(binary);
-		return facTuple;
-	}
 
-	public int[][] geneAllowedTuple(int n, int m) {
-		ArrayList<int[]> list = new ArrayList<int[]>();
-		list.add(new int[m]);
+		if (res != 0) {
+			WindowTuples last = WindowTuples.get(n, m, res);
+			facVars[facNum - 1] = model.intVar("B[" + i + "][" + (facNum - 1) + "]", 0, last.size() - 1);
 
-		CombineTool ct = new CombineTool();
-		int[][] com = ct.genResult(n, m);
-		int[][] tuples = new int[com.length + 1][m];
-		for (int i = 0; i < com.length; i++) {
-			for (int j = 0; j < com[i].length; j++) {
-				tuples[i + 1][com[i][j]] = 1;
+			IntVar[] column = new IntVar[res + 1];
+			for (int k = 0; k < res; k++) {
+				column[k] = cars[(facNum - 1) * m + k][i];
 			}
-		}
+			column[res] = facVars[facNum - 1];
+			model.table(column, last.factor(), "CT+").post();
 
-		return tuples;
+			model.table(facVars[facNum - 2], facVars[facNum - 1], last.connection(), "AC3bit+rm").post();
+		}
 	}
+
 	//еһȡ
 	private static IntVar[] extractor(IntVar[][] mac, int initialNumber, int amount, int num) {// ȡеһ
 		if ((initialNumber + amount) > mac.length) {
@@ -215,28 +188,37 @@ public class MyCarSequencing extends AbstractProblem {
 		return tmp;
 
 	}
-	//㵥һ
-	private int dscompute(int[][] matrixtmp, int num) {
-		int d = 0;
-		for (int m = 0; m < nClasses; m++) {
-			d += matrixtmp[m][num]* demands[m];
-		}
-//		System.out.println(d);
-		return d;
-		
-	}
-
 	@Override
 	public void configureSearch() {
-		model.getSolver().setSearch(MyHeuristicSearch(CarSeq, matrix, optfreq, demands));
-		model.getSolver().limitTime("20m");
+		if (heuristic == null) {
+			model.getSolver().setSearch(MyHeuristicSearch(CarSeq, matrix, optfreq, demands));
+		} else {
+			model.getSolver().setSearch(sequenceSearch(CarSeq, heuristic, seed, new InstanceProfile(configs, optfreq, demands)));
+		}
+		model.getSolver().limitTime(timeLimit("20m"));
 		// model.getSolver().setSearch(inputOrderLBSearch(CarSeq));
 	}
 
 	@Override
 	public void solve() {
+		if (optimize) {
+			// ʱѻݣ洢¼
+			if (minimize(CarSeq, seed) != null) {
+				for (int i = 0; i < nCars; i++) {
+					result.add(CarSeq[i].getName() + " = " + best[i]);
+				}
+			}
+			return;
+		}
 		model.getSolver().solve();
 //		model.getSolver().printStatistics();
+		int[] repaired = repair(CarSeq, seed);
+		if (repaired != null) {
+			for (int i = 0; i < nCars; i++) {
+				result.add(CarSeq[i].getName() + " = " + repaired[i]);
+			}
+			return;
+		}
 		// ӡ
 		for (int i = 0; i < nCars; i++) {
 			//洢List
@@ -264,36 +246,6 @@ public class MyCarSequencing extends AbstractProblem {
 		}
 	}
 
-	private int[][] parse(String source) {
-		int[][] data = null;
-		Scanner sc = new Scanner(source);
-		nCars = sc.nextInt();
-		nOptions = sc.nextInt();
-		nClasses = sc.nextInt();
-
-		optfreq = new int[nOptions][2];
-		// get frequencies
-		for (int i = 0; i < nOptions; i++) {
-			optfreq[i][0] = sc.nextInt();
-		}
-		for (int i = 0; i < nOptions; i++) {
-			optfreq[i][1] = sc.nextInt();
-		}
-
-		// get the demand and options
-		demands = new int[nClasses];
-		matrix = new int[nClasses][nOptions];
-		for (int i = 0; i < nClasses; i++) {
-			sc.nextInt();
-			demands[i] = sc.nextInt();
-			for (int j = 0; j < nOptions; j++) {
-				matrix[i][j] = sc.nextInt();
-			}
-		}
-		sc.close();
-		return data;
-	}
-
 }
 
 
@@ -0,0 +1,152 @@
+package MyCSP.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.chocosolver.samples.AbstractProblem;
+import org.chocosolver.solver.Solver;
+
+import MyCSP.heuristic.SequenceSearch;
+
+/**
+ * ⣺Ϊͬһʵģ͸ÿʹòֵͬѡӣ
+ * кͬʱ⣬һҵлัֹͣ
+ * Ĳͨģ͵ѡ -vh  -seed á
+ */
+public class Portfolio {
+
+	private static final String[] HEURISTICS = { SequenceSearch.AGG, SequenceSearch.SA, SequenceSearch.SU };
+
+	private final Supplier<AbstractProblem> factory; // ½һģ͸
+	private final String[] args; // иõģͲ -d random05
+	private final int nbWorkers;
+
+	private AbstractProblem[] problems;
+	private AtomicInteger winner; // ҵĸţ-1 ʾû
+
+	public Portfolio(Supplier<AbstractProblem> factory, int nbWorkers, String... args) {
+		this.factory = factory;
+		this.nbWorkers = nbWorkers;
+		this.args = args;
+	}
+
+	/**
+	 * wֵѡֻ
+	 */
+	public static String heuristicOf(int w) {
+		return HEURISTICS[w % HEURISTICS.length];
+	}
+
+	/**
+	 * wӣÿֻһһ
+	 */
+	public static long seedOf(int w) {
+		return w / HEURISTICS.length;
+	}
+
+	/**
+	 * ⣬ֱĳҵи
+	 *
+	 * @return ҵĸţûиҵʱΪ-1
+	 * @throws ExecutionException ĳʱ׳쳣
+	 */
+	public int solve() throws InterruptedException, ExecutionException {
+		problems = new AbstractProblem[nbWorkers];
+		winner = new AtomicInteger(-1);
+		AtomicBoolean stop = new AtomicBoolean(false);
+		ExecutorService pool = Executors.newFixedThreadPool(nbWorkers);
+		List<Future<?>> futures = new ArrayList<>(nbWorkers);
+		try {
+			for (int w = 0; w < nbWorkers; w++) {
+				final int id = w;
+				futures.add(pool.submit(() -> {
+					if (stop.get()) {
+						return;
+					}
+					try {
+						AbstractProblem problem = factory.get();
+						problems[id] = problem;
+						if (!problem.readArgs(workerArgs(id))) {
+							throw new UnsupportedOperationException("ERROR: invalid model arguments: " + Arrays.toString(args));
+						}
+						problem.buildModel();
+						problem.configureSearch();
+						Solver solver = problem.getModel().getSolver();
+						solver.addStopCriterion(stop::get);
+						if (solver.solve() && stop.compareAndSet(false, true)) {
+							winner.set(id);
+						}
+					} catch (RuntimeException e) {
+						// ĸัҲͣ
+						stop.set(true);
+						throw e;
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		return winner.get();
+	}
+
+	private String[] workerArgs(int w) {
+		ArrayList<String> a = new ArrayList<>(Arrays.asList(args));
+		a.add("-vh");
+		a.add(heuristicOf(w));
+		a.add("-seed");
+		a.add(String.valueOf(seedOf(w)));
+		return a.toArray(new String[a.size()]);
+	}
+
+	/**
+	 * @return wδʱΪnull
+	 */
+	public AbstractProblem getProblem(int w) {
+		return problems[w];
+	}
+
+	/**
+	 * ÷Portfolio [SumCS|STGCS|MyCarSequencing] [] [ģͲ...]
+	 * ĬΪ Portfolio STGCS 8 -d random05
+	 */
+	public static void main(String[] args) throws InterruptedException, ExecutionException {
+		String name = args.length > 0 ? args[0] : "STGCS";
+		int nbWorkers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		String[] modelArgs = args.length > 2 ? Arrays.copyOfRange(args, 2, args.length) : new String[0];
+		Supplier<AbstractProblem> factory;
+		switch (name) {
+		case "SumCS":
+			factory = SumCS::new;
+			break;
+		case "STGCS":
+			factory = () -> new STGCS(new float[1], 0);
+			break;
+		case "MyCarSequencing":
+			factory = () -> new MyCarSequencing(new ArrayList<String>());
+			break;
+		default:
+			throw new UnsupportedOperationException("ERROR: unknown model: " + name);
+		}
+		long start = System.nanoTime();
+		Portfolio portfolio = new Portfolio(factory, nbWorkers, modelArgs);
+		int w = portfolio.solve();
+		float time = (System.nanoTime() - start) / 1e9f;
+		if (w == -1) {
+			System.out.println("no solution found, " + time + "s");
+		} else {
+			System.out.println("solved by worker " + w + " (" + heuristicOf(w) + ", seed " + seedOf(w) + "), " + time + "s");
+			portfolio.getProblem(w).getModel().getSolver().printStatistics();
+		}
+	}
+}
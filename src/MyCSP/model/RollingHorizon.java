@@ -0,0 +1,189 @@
+package MyCSP.model;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+import MyCSP.heuristic.SequenceSearch;
+import MyCSP.heuristic.values.InstanceProfile;
+import MyCSP.localsearch.GreedyConstruction;
+import MyCSP.model.data.CarSequencingInstance;
+import MyCSP.model.data.ClassOptions;
+import MyCSP.model.data.DataSet;
+import MyCSP.model.data.InstanceReader;
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * ʱ򣺶ϵÿֻԴųеHSTGCSģͣBlockModel
+ * ύеmax q - 1Ϊ̶ķǰ棬³һ봰Լ
+ * ύǰKŻشţ¶
+ * <br/>
+ * ÿģֻHйأʱƣʱûпʱ̰Ĳȫÿӳܳ޹ء
+ */
+public class RollingHorizon {
+
+	private final ClassOptions configs; // /
+	private final int[][] optfreq; // ÿ{p, q}
+	private final int nClasses, nOptions;
+	private final int horizon, commit, context; // H, K, ĳmax q - 1
+	private final String timeLimit; // ÿʱ
+	private final String heuristic;
+	private final long seed;
+
+	private final int[] pending; // ÿŵĳ
+	private int nbPending;
+	private int[] tail = new int[0]; // ύеcontext
+
+	private int nbBlocks, nbFallbacks;
+	private long maxLatency; // ʱ
+
+	/**
+	 * @param instance ֻõp/q/arrive
+	 * @param horizon ÿνģĳH
+	 * @param commit ÿύĳKH
+	 * @param timeLimit ÿʱ䣬 1s
+	 * @param heuristic ֵѡAGGSA  SU
+	 */
+	public RollingHorizon(CarSequencingInstance instance, int horizon, int commit, String timeLimit, String heuristic, long seed) {
+		if (commit < 1 || commit > horizon) {
+			throw new UnsupportedOperationException("ERROR: commit size " + commit + " out of [1, " + horizon + "]");
+		}
+		configs = instance.getClassOptions();
+		optfreq = instance.getOptfreq();
+		nClasses = instance.getNbClasses();
+		nOptions = instance.getNbOptions();
+		this.horizon = horizon;
+		this.commit = commit;
+		int q = 1;
+		for (int i = 0; i < nOptions; i++) {
+			q = Math.max(q, optfreq[i][1]);
+		}
+		context = q - 1;
+		this.timeLimit = timeLimit;
+		this.heuristic = heuristic;
+		this.seed = seed;
+		pending = new int[nClasses];
+	}
+
+	/**
+	 * µcountcĳ
+	 */
+	public void arrive(int c, int count) {
+		pending[c] += count;
+		nbPending += count;
+	}
+
+	public int getNbPending() {
+		return nbPending;
+	}
+
+	/**
+	 * ԴųеHύǰKŲʱȫύ
+	 *
+	 * @return ύĳ֮࣬ǰύ֮
+	 */
+	public int[] step() {
+		long t0 = System.currentTimeMillis();
+		int h = Math.min(horizon, nbPending);
+		int k = h < horizon ? h : commit; // ŲHʱһύ
+		int[] block = solveBlock(h);
+		int[] committed = Arrays.copyOf(block, k);
+		for (int c : committed) {
+			pending[c]--;
+		}
+		nbPending -= k;
+		// ģĽύĳȡcontext
+		int[] all = new int[tail.length + k];
+		System.arraycopy(tail, 0, all, 0, tail.length);
+		System.arraycopy(committed, 0, all, tail.length, k);
+		tail = Arrays.copyOfRange(all, Math.max(0, all.length - context), all.length);
+		nbBlocks++;
+		maxLatency = Math.max(maxLatency, System.currentTimeMillis() - t0);
+		return committed;
+	}
+
+	// ֮h
+	private int[] solveBlock(int h) {
+		InstanceProfile profile = new InstanceProfile(configs, optfreq, pending);
+		// ³ÿĳŵĳ
+		int[] block = BlockModel.solve(profile, tail, h, new int[0], new int[nClasses], pending, heuristic, seed + nbBlocks, timeLimit);
+		if (block != null) {
+			return block;
+		}
+		// ʱ²У̰ĲȫΥԼ
+		nbFallbacks++;
+		int ctx = tail.length;
+		int[] seq = Arrays.copyOf(tail, ctx + h);
+		Arrays.fill(seq, ctx, ctx + h, -1);
+		GreedyConstruction.fill(profile, seq, pending.clone(), seed + nbBlocks);
+		return Arrays.copyOfRange(seq, ctx, ctx + h);
+	}
+
+	public int getNbBlocks() {
+		return nbBlocks;
+	}
+
+	/**
+	 * @return ûʱҵС̰ĲȫĿ
+	 */
+	public int getNbFallbacks() {
+		return nbFallbacks;
+	}
+
+	public long getMaxLatency() {
+		return maxLatency;
+	}
+
+	/**
+	 * ģⶩʵеĳҺȵH֮ÿύһ鵽K
+	 * <br/>
+	 * ÷RollingHorizon [ʵ] [H] [K] [ÿʱ] []ʵΪݼе֣ MyData.md_b11ļ
+	 */
+	public static void main(String[] args) {
+		String name = args.length > 0 ? args[0] : "MyData.md_b11";
+		int horizon = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		int commit = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+		String limit = args.length > 3 ? args[3] : "1s";
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 0;
+		CarSequencingInstance instance = Files.exists(Paths.get(name)) ? InstanceReader.load(name) : InstanceReader.cached(DataSet.source(name));
+
+		TIntArrayList orders = new TIntArrayList(instance.getNbCars());
+		for (int c = 0; c < instance.getNbClasses(); c++) {
+			for (int j = 0; j < instance.getDemand(c); j++) {
+				orders.add(c);
+			}
+		}
+		orders.shuffle(new Random(seed));
+
+		long t0 = System.currentTimeMillis();
+		RollingHorizon rh = new RollingHorizon(instance, horizon, commit, limit, SequenceSearch.AGG, seed);
+		TIntArrayList sequence = new TIntArrayList(instance.getNbCars());
+		int next = 0;
+		for (; next < Math.min(horizon, orders.size()); next++) {
+			rh.arrive(orders.get(next), 1);
+		}
+		while (rh.getNbPending() > 0) {
+			sequence.add(rh.step());
+			for (int j = 0; j < commit && next < orders.size(); j++, next++) {
+				rh.arrive(orders.get(next), 1);
+			}
+		}
+
+		int violations = 0;
+		for (int i = 0; i < instance.getNbOptions(); i++) {
+			int p = instance.getP(i), q = instance.getQ(i), ones = 0;
+			for (int k = 0; k < sequence.size(); k++) {
+				ones += instance.has(sequence.get(k), i) ? 1 : 0;
+				if (k >= q) {
+					ones -= instance.has(sequence.get(k - q), i) ? 1 : 0;
+				}
+				if (k >= q - 1 && ones > p) {
+					violations += ones - p;
+				}
+			}
+		}
+		System.out.println(name + ": " + sequence.size() + " " + rh.getNbBlocks() + " 飬̰Ĳȫ " + rh.getNbFallbacks()
+				+ " 飬Υ " + violations + " " + rh.getMaxLatency() + "ms " + (System.currentTimeMillis() - t0) / 1000f + "s");
+	}
+}
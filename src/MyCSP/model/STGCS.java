@@ -1,22 +1,22 @@
 
 package MyCSP.model;
 
-import org.chocosolver.samples.AbstractProblem;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.variables.IntVar;
 import org.kohsuke.args4j.Option;
 
+import MyCSP.constraint.globalcardinality.GlobalCardinality;
+import MyCSP.constraint.sequence.AtMostSeq;
+import MyCSP.heuristic.values.InstanceProfile;
 import MyCSP.model.data.DataSet.*;
 
-import java.text.DecimalFormat;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
 
+import static MyCSP.heuristic.SequenceSearch.sequenceSearch;
 import static org.chocosolver.solver.search.strategy.Search.MyHeuristicSearch;
 
-public class STGCS extends AbstractProblem {
+public class STGCS extends CarSequencingProblem {
 
 	private float[] timetmp;
 	private int ttindex;
@@ -32,22 +32,28 @@ public class STGCS extends AbstractProblem {
 //	MyData data = MyData.valueOf("md_m01");
 //	Data data = Data.P41_66;
 
+	@Option(name = "-gcc", usage = "GCC filtering: FAST or FLOW.", required = false)
+	String gcc = GlobalCardinality.FAST;
+
+	@Option(name = "-vh", aliases = "--value-heuristic", usage = "Value heuristic of the sequence search: AGG, SA or SU (default: MyHeuristicSearch).", required = false)
+	String heuristic = null;
+
+	@Option(name = "-seed", usage = "Random seed of the value heuristic.", required = false)
+	long seed = 0;
+
 	IntVar[] CarSeq;
 	IntVar[][] cars;
 
-	int nCars, nClasses, nOptions;
-
-	int[] demands;
-	int[][] optfreq, matrix;
+	@Override
+	String source() {
+		return data.source();
+	}
 
 	@Override
 	public void buildModel() {
 		model = new Model("CarSequencing");
-		parse(data.source());
-		int[] darray = new int[nOptions]; // 㵥һ
-		for (int i = 0; i < nOptions; i++) {
-			darray[i] = dscompute(matrix, i);
-		}
+		loadInstance();
+		int[] darray = instance.getOptionDemands(); // һ
 
 		int max = nClasses - 1;
 		CarSeq = model.intVarArray("CarSeq", nCars, 0, max, false);
@@ -59,9 +65,7 @@ public class STGCS extends AbstractProblem {
 		for (int i = 0; i < nClasses; i++) {
 			int[] row = new int[nOptions + 1];
 			row[0] = i;
-			for (int j = 0; j < nOptions; j++) {
-				row[j + 1] = matrix[i][j];
-			}
+			System.arraycopy(configs.row(i), 0, row, 1, nOptions);
 			tp.add(row);
 		}
 		for (int i = 0; i < nCars; i++) {
@@ -77,25 +81,25 @@ public class STGCS extends AbstractProblem {
 		// model.table(cars[i], tp).post();
 		// }
 
+		IntVar[] soft = new IntVar[nOptions];
 		for (int i = 0; i < nOptions; i++) {
 
-			// sumģ
+			// ԼÿdenominatornumeratorҪ
 			int numerator = optfreq[i][0];
-
 			int denominator = optfreq[i][1];
-			int module = nCars - denominator;
-
-			int j = 0;
-			while (j <= module) {
-				IntVar[] array = extractor(cars, j, denominator, i);
-				model.sum(array, "<=", numerator).post();
-				j++;
+			if (optimize) {
+				soft[i] = softWindows(extractor(cars, 0, nCars, i), new int[] { 1 }, numerator, denominator, "violations_" + i);
+			} else {
+				new AtMostSeq(extractor(cars, 0, nCars, i), numerator, denominator).post();
 			}
 
 			// ÿԼ
 			IntVar[] sumarray = extractor(cars, 0, nCars, i);
 			model.sum(sumarray, "=", darray[i]).post();
 		}
+		if (optimize) {
+			minimizeViolations(soft);
+		}
 
 		// ȫԼ
 		int[] values = new int[nClasses];
@@ -104,7 +108,7 @@ public class STGCS extends AbstractProblem {
 			expArray[i] = model.intVar("var_" + i, 0, demands[i], false);
 			values[i] = i;
 		}
-		model.globalCardinality(CarSeq, values, expArray, false).post();
+		new GlobalCardinality(CarSeq, values, expArray, gcc).post();
 
 	}
 
@@ -121,30 +125,33 @@ public class STGCS extends AbstractProblem {
 
 	}
 
-	// 㵥һ
-	private int dscompute(int[][] matrixtmp, int num) {
-		int d = 0;
-		for (int m = 0; m < nClasses; m++) {
-			d += matrixtmp[m][num] * demands[m];
-		}
-//		System.out.println(d);
-		return d;
-
-	}
-
 	@Override
 	public void configureSearch() {
-		model.getSolver().setSearch(MyHeuristicSearch(CarSeq, matrix, optfreq, demands));
-		model.getSolver().limitTime("20m");
+		if (heuristic == null) {
+			model.getSolver().setSearch(MyHeuristicSearch(CarSeq, matrix, optfreq, demands));
+		} else {
+			model.getSolver().setSearch(sequenceSearch(CarSeq, heuristic, seed, new InstanceProfile(configs, optfreq, demands)));
+		}
+		model.getSolver().limitTime(timeLimit("20m"));
 		// model.getSolver().setSearch(inputOrderLBSearch(CarSeq));
 	}
 
 	@Override
 	public void solve() {
-		model.getSolver().solve();
+		int[] found;
+		if (optimize) {
+			found = minimize(CarSeq, seed);
+		} else {
+			model.getSolver().solve();
+			found = repair(CarSeq, seed);
+		}
 //		model.getSolver().printStatistics();
 		float time = model.getSolver().getTimeCount();
 		timetmp[ttindex] = time;
+		// Żֲ޸õ
+		if (found != null) {
+			printSequence(CarSeq, found);
+		}
 //		System.out.println(time);
 		// ӡ
 //		for (int i = 0; i < model.getNbVars(); i++) {
@@ -162,98 +169,12 @@ public class STGCS extends AbstractProblem {
 
 	}
 
-	public static float getAverage(float[] ft) {
-
-		float r = 0;
-		for (int i = 0; i < ft.length; i++) {
-//			System.out.println("ft" + i + ft[i]);
-			r += ft[i];
-		}
-		return r / ft.length;
-	}
-
-	public static void main(String[] args) {
-
-		List<Float> timeList = new ArrayList<Float>();
-		int fq = 10; // ÿfqȡƽ
-		int sindex = 1;// һݵʼ
-		int eindex = 75;// һβ
-
-		for (int i = sindex; i <= eindex; i++) {
-			String atmp = "random";
-			if (i < 10) {
-				atmp += "0" + i;
-			} else {
-				atmp += i;
-			}
-			args[1] = atmp;
-			float[] ttmp = new float[fq];
-			for (int j = 0; j < fq; j++) {
-				new STGCS(ttmp, j).execute(args);
-				if (ttmp[j] > 1100) {//ʱ䳬1100Ϊʱ
-					ttmp[j] = -fq;
-					break;
-				}
-//				System.out.println("ttmp:"+ttmp[1]);
-			}
-			timeList.add(getAverage(ttmp));
-		}
-
-		int i = sindex;
-		// ӡ
-		int failcount = 0;
-		float sum = 0.0f;
-		for (float pr : timeList) {
-
-			String p = "md_m";
-			if (i < 10) {
-				p += "0" + i;
-			} else {
-				p += i;
-			}
-			if (pr > 0) {
-				sum += pr;
-			} else {
-				failcount++;
-			}
-			DecimalFormat df = new DecimalFormat("0.000");
-			System.out.println(p + ":\t" + df.format(pr));
-			i++;
-		}
-		System.out.println("ƽֵ:\t" + sum / (i - failcount));
-		System.out.println("ͨ:\t" + (float)(i - failcount) / i);
-//		args[1] += "0" + 5;
-//		new STGCS().execute(args);
-	}
-
-	private int[][] parse(String source) {
-		int[][] data = null;
-		Scanner sc = new Scanner(source);
-		nCars = sc.nextInt();
-		nOptions = sc.nextInt();
-		nClasses = sc.nextInt();
-
-		optfreq = new int[nOptions][2];
-		// ȡ
-		for (int i = 0; i < nOptions; i++) {
-			optfreq[i][0] = sc.nextInt();
-		}
-		for (int i = 0; i < nOptions; i++) {
-			optfreq[i][1] = sc.nextInt();
-		}
-
-		// ȡȡ
-		demands = new int[nClasses];
-		matrix = new int[nClasses][nOptions];
-		for (int i = 0; i < nClasses; i++) {
-			sc.nextInt();
-			demands[i] = sc.nextInt();
-			for (int j = 0; j < nOptions; j++) {
-				matrix[i][j] = sc.nextInt();
-			}
-		}
-		sc.close();
-		return data;
+	/**
+	 * random01..random75ÿ10ΣBenchmark
+	 */
+	public static void main(String[] args) throws InterruptedException, ExecutionException {
+		Benchmark bench = new Benchmark(() -> new STGCS(new float[1], 0), Runtime.getRuntime().availableProcessors(), 1100, args);
+		Benchmark.print(bench.run(Benchmark.randomInstances(1, 75), 10));
 	}
 
 }
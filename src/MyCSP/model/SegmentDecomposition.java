@@ -0,0 +1,254 @@
+package MyCSP.model;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import MyCSP.heuristic.SequenceSearch;
+import MyCSP.heuristic.values.InstanceProfile;
+import MyCSP.localsearch.GreedyConstruction;
+import MyCSP.localsearch.LocalSearch;
+import MyCSP.localsearch.WindowViolations;
+import MyCSP.model.data.CarSequencingInstance;
+import MyCSP.model.data.DataSet;
+import MyCSP.model.data.InstanceReader;
+
+/**
+ * ֶⳤУԼֻ಻qĳnCarsֳɶΣ
+ * ÿηĳ̳߳ж⣨BlockModel
+ * <br/>
+ * ƴӣ߽֮ĴڿΥʱſ߽seam
+ * ǰmax q - 1Ϊ̶ġЩλϸĳӷ졣
+ * ÿӷͬڱ߽ڣеĽӷ첻д˴˵ģдغټһα߽硣
+ * ĳûʱʱ̰ĲȫӷҲ޲ʱֲ޸
+ */
+public class SegmentDecomposition {
+
+	private final CarSequencingInstance instance;
+	private final InstanceProfile profile;
+	private final int nbSegments, nbThreads;
+	private final String timeLimit; // ÿΡÿӷʱ
+	private final String heuristic;
+	private final long seed;
+	private final int context; // max q - 1
+	private final int seam; // ӷڱ߽ÿſĳ
+
+	private int segmentFailures, seamsRepaired, seamFailures;
+	private int finalCost;
+
+	public SegmentDecomposition(CarSequencingInstance instance, int nbSegments, int nbThreads, String timeLimit, String heuristic, long seed) {
+		this.instance = instance;
+		this.profile = new InstanceProfile(instance.getClassOptions(), instance.getOptfreq(), instance.getDemands());
+		this.nbSegments = Math.max(1, Math.min(nbSegments, instance.getNbCars()));
+		this.nbThreads = nbThreads;
+		this.timeLimit = timeLimit;
+		this.heuristic = heuristic;
+		this.seed = seed;
+		int q = 1;
+		for (int i = 0; i < instance.getNbOptions(); i++) {
+			q = Math.max(q, instance.getQ(i));
+		}
+		context = q - 1;
+		seam = 2 * q;
+	}
+
+	/**
+	 * ÿε㣬һΪnCars
+	 */
+	int[] bounds() {
+		int n = instance.getNbCars();
+		int[] bounds = new int[nbSegments + 1];
+		for (int s = 0; s <= nbSegments; s++) {
+			bounds[s] = (int) ((long) n * s / nbSegments);
+		}
+		return bounds;
+	}
+
+	/**
+	 * ÿθĳʣռʣ೵ıȡµĳСࡣ
+	 * ÿεĳ֮͵ڶγÿ֮͵
+	 */
+	static int[][] quotas(int[] demands, int[] bounds) {
+		int nClasses = demands.length, nbSegments = bounds.length - 1;
+		int[] remaining = demands.clone();
+		int left = bounds[nbSegments] - bounds[0];
+		int[][] quotas = new int[nbSegments][nClasses];
+		double[] fraction = new double[nClasses];
+		for (int s = 0; s < nbSegments; s++) {
+			int length = bounds[s + 1] - bounds[s], sum = 0;
+			for (int c = 0; c < nClasses; c++) {
+				double ideal = (double) remaining[c] * length / left;
+				quotas[s][c] = (int) ideal;
+				fraction[c] = ideal - quotas[s][c];
+				sum += quotas[s][c];
+			}
+			for (; sum < length; sum++) {
+				int c = 0;
+				for (int d = 1; d < nClasses; d++) {
+					if (fraction[d] > fraction[c]) {
+						c = d;
+					}
+				}
+				quotas[s][c]++;
+				fraction[c] = -1;
+			}
+			for (int c = 0; c < nClasses; c++) {
+				remaining[c] -= quotas[s][c];
+			}
+			left -= length;
+		}
+		return quotas;
+	}
+
+	/**
+	 * @param repairMillis ƴӺΥʱֲʱ
+	 * @return УΥȼgetFinalCost
+	 */
+	public int[] solve(long repairMillis) throws InterruptedException, ExecutionException {
+		int n = instance.getNbCars();
+		int[] bounds = bounds();
+		int[][] quotas = quotas(instance.getDemands(), bounds);
+		int[] seq = new int[n];
+		ExecutorService pool = Executors.newFixedThreadPool(nbThreads);
+		try {
+			// ζ
+			List<Future<int[]>> segments = new ArrayList<>(nbSegments);
+			for (int s = 0; s < nbSegments; s++) {
+				final int length = bounds[s + 1] - bounds[s], id = s;
+				final int[] quota = quotas[s];
+				segments.add(pool.submit(() -> BlockModel.solve(profile, new int[0], length, new int[0], quota, quota, heuristic, seed + id, timeLimit)));
+			}
+			for (int s = 0; s < nbSegments; s++) {
+				int[] block = segments.get(s).get();
+				if (block == null) {
+					// ö̰Ĳȫӷ;ֲ
+					segmentFailures++;
+					block = new int[bounds[s + 1] - bounds[s]];
+					Arrays.fill(block, -1);
+					GreedyConstruction.fill(profile, block, quotas[s].clone(), seed + s);
+				}
+				System.arraycopy(block, 0, seq, bounds[s], block.length);
+			}
+
+			// ƴӣ޸߽Ĵ
+			List<Integer> broken = new ArrayList<>();
+			List<Future<int[]>> seams = new ArrayList<>();
+			int[] starts = new int[nbSegments];
+			for (int s = 1; s < nbSegments; s++) {
+				int b = bounds[s];
+				if (crossingViolations(seq, b) == 0) {
+					continue;
+				}
+				// ӷ켰ĲԽεе
+				int lo = s == 1 ? 0 : (bounds[s - 1] + b) / 2 + context;
+				int hi = s == nbSegments - 1 ? n : (b + bounds[s + 1]) / 2 - context;
+				int from = Math.max(b - seam, lo);
+				int to = Math.min(b + seam, hi);
+				if (from >= to) {
+					// ֲ̫̣
+					seamFailures++;
+					continue;
+				}
+				int[] before = Arrays.copyOfRange(seq, Math.max(0, from - context), from);
+				int[] after = Arrays.copyOfRange(seq, to, Math.min(n, to + context));
+				int[] counts = new int[instance.getNbClasses()];
+				for (int k = from; k < to; k++) {
+					counts[seq[k]]++;
+				}
+				broken.add(s);
+				starts[s] = from;
+				final int length = to - from, id = s;
+				seams.add(pool.submit(() -> BlockModel.solve(profile, before, length, after, counts, counts, heuristic, seed + nbSegments + id, timeLimit)));
+			}
+			for (int j = 0; j < seams.size(); j++) {
+				int[] block = seams.get(j).get();
+				int s = broken.get(j);
+				if (block != null) {
+					System.arraycopy(block, 0, seq, starts[s], block.length);
+				}
+				if (block != null && crossingViolations(seq, bounds[s]) == 0) {
+					seamsRepaired++;
+				} else {
+					seamFailures++;
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		// ףֲ޸
+		finalCost = new WindowViolations(instance, seq).cost();
+		if (finalCost > 0 && repairMillis > 0) {
+			LocalSearch ls = new LocalSearch(instance, seed);
+			seq = ls.run(seq, repairMillis, Long.MAX_VALUE);
+			finalCost = ls.getBestCost();
+		}
+		return seq;
+	}
+
+	// ߽bb-1bĴڵΥ
+	private int crossingViolations(int[] seq, int b) {
+		int v = 0;
+		for (int i = 0; i < instance.getNbOptions(); i++) {
+			int p = instance.getP(i), q = instance.getQ(i);
+			for (int w = Math.max(0, b - q + 1); w < b && w + q <= seq.length; w++) {
+				int ones = 0;
+				for (int k = w; k < w + q; k++) {
+					ones += instance.has(seq[k], i) ? 1 : 0;
+				}
+				v += Math.max(0, ones - p);
+			}
+		}
+		return v;
+	}
+
+	/**
+	 * @return ûʱ̰ĲȫĶ
+	 */
+	public int getSegmentFailures() {
+		return segmentFailures;
+	}
+
+	public int getSeamsRepaired() {
+		return seamsRepaired;
+	}
+
+	/**
+	 * @return ûʱ޺õĽӷ
+	 */
+	public int getSeamFailures() {
+		return seamFailures;
+	}
+
+	/**
+	 * @return еΥȣ0ʾ
+	 */
+	public int getFinalCost() {
+		return finalCost;
+	}
+
+	/**
+	 * ÷SegmentDecomposition [ʵ] [] [߳] [ÿʱ] []ʵΪݼе֣ MyData.md_b11ļ
+	 * ĬΪ߳߳ĬΪ
+	 */
+	public static void main(String[] args) throws InterruptedException, ExecutionException {
+		String name = args.length > 0 ? args[0] : "MyData.md_b11";
+		int nbThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		int nbSegments = args.length > 1 ? Integer.parseInt(args[1]) : nbThreads;
+		String limit = args.length > 3 ? args[3] : "30s";
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 0;
+		CarSequencingInstance instance = Files.exists(Paths.get(name)) ? InstanceReader.load(name) : InstanceReader.cached(DataSet.source(name));
+
+		long t0 = System.currentTimeMillis();
+		SegmentDecomposition sd = new SegmentDecomposition(instance, nbSegments, nbThreads, limit, SequenceSearch.AGG, seed);
+		sd.solve(10000);
+		System.out.println(name + ": " + nbSegments + " Σ" + nbThreads + " ̣̰߳Ĳȫ " + sd.getSegmentFailures() + " Σ޸ӷ " + sd.getSeamsRepaired()
+				+ "δ޺ " + sd.getSeamFailures() + "Υ " + sd.getFinalCost() + "" + (System.currentTimeMillis() - t0) / 1000f + "s");
+	}
+}
@@ -1,37 +1,44 @@
 package MyCSP.model;
 
+import static MyCSP.heuristic.SequenceSearch.sequenceSearch;
 import static org.chocosolver.solver.search.strategy.Search.MyHeuristicSearch;
 
-import java.util.Scanner;
 
-import org.chocosolver.samples.AbstractProblem;
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.variables.IntVar;
 import org.kohsuke.args4j.Option;
 
-public class SumCS extends AbstractProblem {
+import MyCSP.constraint.globalcardinality.GlobalCardinality;
+import MyCSP.constraint.sequence.AtMostSeq;
+import MyCSP.heuristic.values.InstanceProfile;
+
+public class SumCS extends CarSequencingProblem {
 
 	@Option(name = "-d", aliases = "--data", usage = "Car sequencing data.", required = false)
 	// CSPLib data = CSPLib.random01;
 	Data data = Data.myPb;
 
+	@Option(name = "-vh", aliases = "--value-heuristic", usage = "Value heuristic of the sequence search: AGG, SA or SU (default: MyHeuristicSearch).", required = false)
+	String heuristic = null;
+
+	@Option(name = "-seed", usage = "Random seed of the value heuristic.", required = false)
+	long seed = 0;
+
 	IntVar[] CarSeq;
 	IntVar[][] cars;
 
-	int nCars, nClasses, nOptions;
-
-	int[] demands;
-	int[][] optfreq, matrix;
+	@Override
+	String source() {
+		return data.source();
+	}
 
 	@Override
 	public void buildModel() {
 		// TODO Auto-generated method stub
 		model = new Model("CarSequencing");
-		parse(data.source());
-		int[] darray = new int[nOptions]; // 㵥һ
-		for (int i = 0; i < nOptions; i++) {
-			darray[i] = dscompute(matrix, i);
-		}
+		loadInstance();
+		int[] darray = instance.getOptionDemands(); // һ
 
 		int max = nClasses - 1;
 		CarSeq = model.intVarArray("CarSeq", nCars, 0, max, false);
@@ -49,27 +56,54 @@ public class SumCS extends AbstractProblem {
 			}
 		}
 		//######
-		
-		
+
+		// ŻLNSCarSeqϷ֧WindowNeighborhood̶CarSeqںĿȴϣ
+		// ñԼÿһƸĳͬSTGCS
+		if (optimize) {
+			Tuples tp = new Tuples(true);
+			for (int i = 0; i < nClasses; i++) {
+				int[] row = new int[nOptions + 1];
+				row[0] = i;
+				System.arraycopy(configs.row(i), 0, row, 1, nOptions);
+				tp.add(row);
+			}
+			for (int i = 0; i < nCars; i++) {
+				IntVar[] row = new IntVar[nOptions + 1];
+				row[0] = CarSeq[i];
+				for (int j = 0; j < nOptions; j++) {
+					row[j + 1] = cars[i][j];
+				}
+				model.table(row, tp).post();
+			}
+			// 
+			int[] values = new int[nClasses];
+			IntVar[] expArray = new IntVar[nClasses];
+			for (int i = 0; i < nClasses; i++) {
+				expArray[i] = model.intVar("var_" + i, 0, demands[i], false);
+				values[i] = i;
+			}
+			new GlobalCardinality(CarSeq, values, expArray, GlobalCardinality.FAST).post();
+		}
+
+		IntVar[] soft = new IntVar[nOptions];
 		for (int i = 0; i < nOptions; i++) {
 
-			// sumģ
+			// ԼÿdenominatornumeratorҪ
 			int numerator = optfreq[i][0];
-
 			int denominator = optfreq[i][1];
-			int module = nCars - denominator;
-
-			int j = 0;
-			while (j <= module) {
-				IntVar[] array = extractor(cars, j, denominator, i);
-				model.sum(array, "<=", numerator).post();
-				j++;
+			if (optimize) {
+				soft[i] = softWindows(extractor(cars, 0, nCars, i), new int[] { 1 }, numerator, denominator, "violations_" + i);
+			} else {
+				new AtMostSeq(extractor(cars, 0, nCars, i), numerator, denominator).post();
 			}
 
 			// ÿԼ
 			IntVar[] sumarray = extractor(cars, 0, nCars, i);
 			model.sum(sumarray, "=", darray[i]).post();
 		}
+		if (optimize) {
+			minimizeViolations(soft);
+		}
 
 	}
 
@@ -86,29 +120,33 @@ public class SumCS extends AbstractProblem {
 
 	}
 
-	// 㵥һ
-	private int dscompute(int[][] matrixtmp, int num) {
-		int d = 0;
-		for (int m = 0; m < nClasses; m++) {
-			d += matrixtmp[m][num] * demands[m];
-		}
-		// System.out.println(d);
-		return d;
-
-	}
-
 	@Override
 	public void configureSearch() {
-		model.getSolver().setSearch(MyHeuristicSearch(CarSeq, matrix, optfreq, demands));
-		model.getSolver().limitTime("10m");
+		if (heuristic == null) {
+			model.getSolver().setSearch(MyHeuristicSearch(CarSeq, matrix, optfreq, demands));
+		} else {
+			model.getSolver().setSearch(sequenceSearch(CarSeq, heuristic, seed, new InstanceProfile(configs, optfreq, demands)));
+		}
+		model.getSolver().limitTime(timeLimit("10m"));
 		// model.getSolver().setSearch(inputOrderLBSearch(CarSeq));
 	}
 
 	@Override
 	public void solve() {
 		// TODO Auto-generated method stub
-		model.getSolver().solve();
+		int[] found;
+		if (optimize) {
+			found = minimize(CarSeq, seed);
+		} else {
+			model.getSolver().solve();
+			found = repair(CarSeq, seed);
+		}
 		model.getSolver().printStatistics();
+		// Żֲ޸õ
+		if (found != null) {
+			printSequence(CarSeq, found);
+			return;
+		}
 		// ӡ
 		for (int i = 0; i < model.getNbVars(); i++) {
 			System.out.print(model.getVars()[i]);
@@ -129,36 +167,6 @@ public class SumCS extends AbstractProblem {
 		new SumCS().execute(args);
 	}
 
-	private int[][] parse(String source) {
-		int[][] data = null;
-		Scanner sc = new Scanner(source);
-		nCars = sc.nextInt();
-		nOptions = sc.nextInt();
-		nClasses = sc.nextInt();
-
-		optfreq = new int[nOptions][2];
-		//ȡ
-		for (int i = 0; i < nOptions; i++) {
-			optfreq[i][0] = sc.nextInt();
-		}
-		for (int i = 0; i < nOptions; i++) {
-			optfreq[i][1] = sc.nextInt();
-		}
-
-		//ȡȡ
-		demands = new int[nClasses];
-		matrix = new int[nClasses][nOptions];
-		for (int i = 0; i < nClasses; i++) {
-			sc.nextInt();
-			demands[i] = sc.nextInt();
-			for (int j = 0; j < nOptions; j++) {
-				matrix[i][j] = sc.nextInt();
-			}
-		}
-		sc.close();
-		return data;
-	}
-
 	enum Data {
 		myPb("10 5 6\n" + "1 2 1 2 1\n" + "2 3 3 5 5\n" + "0 1 1 0 1 1 0\n" + "1 1 0 0 0 1 0\n" + "2 2 0 1 0 0 1\n"
 				+ "3 2 0 1 0 1 0\n" + "4 2 1 0 1 0 0\n" + "5 2 1 1 0 0 0"), P4_72(
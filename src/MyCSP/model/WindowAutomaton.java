@@ -0,0 +1,70 @@
+package MyCSP.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.chocosolver.solver.constraints.nary.automata.FA.FiniteAutomaton;
+
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.hash.TLongIntHashMap;
+
+/**
+ * һp/qԼɵԶMyCarSequencingregularģ
+ * ĸΪ{0, 1}λõĳǷҪ״̬Ϊq-1λλ루0λΪһ
+ * ֻ1ĸp״̬һλqλ1ĸpûתơ
+ * ʼ״̬Ϊȫ0пͷ֮ǰҪĳ״ֹ̬״̬
+ * <br/>
+ * Զֻ(p, q)йأ̹һݣregularԼֻȡ
+ */
+final class WindowAutomaton {
+
+	private static final ConcurrentHashMap<Long, FiniteAutomaton> CACHE = new ConcurrentHashMap<>();
+
+	private WindowAutomaton() {
+	}
+
+	/**
+	 * @param p qpҪ
+	 * @param q ڳȣ64
+	 */
+	static FiniteAutomaton get(int p, int q) {
+		if (q < 1 || q > 64) {
+			throw new UnsupportedOperationException("ERROR: window length out of [1, 64]: " + q);
+		}
+		long key = ((long) p << 32) | q;
+		return CACHE.computeIfAbsent(key, k -> build(p, q));
+	}
+
+	private static FiniteAutomaton build(int p, int q) {
+		long keep = q == 1 ? 0 : -1L >>> (65 - q); // q-1λ
+		FiniteAutomaton fa = new FiniteAutomaton();
+		TLongIntHashMap states = new TLongIntHashMap();
+		TLongArrayList masks = new TLongArrayList(); // ״̬еλ룬ͬʱΪȵĶ
+		int init = fa.addState();
+		fa.setInitialState(init);
+		fa.setFinal(init);
+		states.put(0L, init);
+		masks.add(0L);
+		for (int i = 0; i < masks.size(); i++) {
+			long mask = masks.get(i);
+			int from = states.get(mask);
+			for (int b = 0; b <= 1; b++) {
+				long window = (mask << 1) | b; // qλ
+				if (Long.bitCount(window) > p) {
+					continue;
+				}
+				long next = window & keep;
+				int to;
+				if (states.containsKey(next)) {
+					to = states.get(next);
+				} else {
+					to = fa.addState();
+					fa.setFinal(to);
+					states.put(next, to);
+					masks.add(next);
+				}
+				fa.addTransition(from, to, b);
+			}
+		}
+		return fa;
+	}
+}
@@ -0,0 +1,154 @@
+package MyCSP.model;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.chocosolver.solver.constraints.extension.Tuples;
+
+/**
+ * MyCarSequencingһڵtableģõԪ飺
+ * 0/1ȡֵԪ飨ÿԪԼıţԼڱ֮Ԫ顣
+ * <br/>
+ * Ԫֻ(p, q, )йأ̹һݣظģͶ߳̽ģʱɡ
+ * ɺ޸ģtableԼֻȡǡ
+ */
+final class WindowTuples {
+
+	private static final ConcurrentHashMap<Long, WindowTuples> CACHE = new ConcurrentHashMap<>();
+
+	// ڿ֮ӱҪ Ԫƽ Ԫ飬Ŀʱ̫̫ռڴ
+	static final long MAX_PAIRS = 1L << 22;
+
+	private final int size; // Ԫĸڱűȡֵ
+	private final Tuples factor; // ڱ + ڱ
+	private final Tuples connection; // ǰһڵıţڵı
+
+	private WindowTuples(int p, int q, int r) {
+		int[][] tps = geneAllowedTuple(p, q);
+		int[][] own = r == 0 ? tps : geneAllowedTuple(p, r);
+		size = own.length;
+		factor = geneFactorTuples(own);
+		connection = geneConnection(tps, own, p, q);
+	}
+
+	/**
+	 * @param p qpҪ
+	 * @param q ڳ
+	 * @param r 0ʾڣΪһڵĳ
+	 */
+	static WindowTuples get(int p, int q, int r) {
+		if (!fits(p, q)) {
+			throw new UnsupportedOperationException("ERROR: window tables too large for p/q = " + p + "/" + q + " ("
+					+ count(p, q) + " tuples per block), use -enc REGULAR");
+		}
+		long key = ((long) p << 42) | ((long) q << 21) | r;
+		return CACHE.computeIfAbsent(key, k -> new WindowTuples(p, q, r));
+	}
+
+	/**
+	 * @return Ϊqp10/1ԪĸlongΧʱΪLong.MAX_VALUE
+	 */
+	static long count(int p, int q) {
+		long total = 0;
+		for (int k = 0; k <= Math.min(p, q); k++) {
+			long c = CombineTool.count(q, k);
+			if (c > Long.MAX_VALUE - total) {
+				return Long.MAX_VALUE;
+			}
+			total += c;
+		}
+		return total;
+	}
+
+	/**
+	 * @return (p, q)ڵӱǷMAX_PAIRSڣӦregular
+	 */
+	static boolean fits(int p, int q) {
+		long size = count(p, q);
+		return size <= MAX_PAIRS / size;
+	}
+
+	int size() {
+		return size;
+	}
+
+	Tuples factor() {
+		return factor;
+	}
+
+	/**
+	 * @return ǰһ뱾ڵı֮
+	 */
+	Tuples connection() {
+		return connection;
+	}
+
+	private static Tuples geneFactorTuples(int[][] tuples) {
+		int m = tuples.length;
+		int n = tuples[0].length;
+		int[][] factorTuples = new int[m][n + 1];
+		for (int j = 0; j < m; j++) {
+			for (int k = 0; k < n; k++) {
+				factorTuples[j][k] = tuples[j][k];
+			}
+			factorTuples[j][n] = j;
+		}
+		Tuples facTuple = new Tuples(true);
+		facTuple.add(factorTuples);
+		return facTuple;
+	}
+
+	/**
+	 * ǰһt1m뱾t2ʱڵÿΪmĴ1ĸܳn
+	 */
+	private static Tuples geneConnection(int[][] tps1, int[][] tps2, int n, int m) {
+		int len2 = tps2[0].length;
+		int[][] pre1 = prefixCounts(tps1), pre2 = prefixCounts(tps2);
+		ArrayList<int[]> list = new ArrayList<int[]>(m * n);
+		for (int i = 0; i < tps1.length; i++) {
+			int[] c1 = pre1[i];
+			for (int j = 0; j < tps2.length; j++) {
+				int[] c2 = pre2[j];
+				boolean conflict = false;
+				// t1[k, m)t2[0, k)
+				for (int k = 1; k < m && !conflict; k++) {
+					conflict = c1[m] - c1[k] + c2[Math.min(k, len2)] > n;
+				}
+				if (!conflict) {
+					list.add(new int[] { i, j });
+				}
+			}
+		}
+		int[][] binary = new int[0][0];
+		binary = list.toArray(binary);
+		Tuples facTuple = new Tuples(true);
+		facTuple.add(binary);
+		return facTuple;
+	}
+
+	// ÿԪǰ׺ͣc[j]Ϊǰjλ1ĸ
+	private static int[][] prefixCounts(int[][] tuples) {
+		int[][] counts = new int[tuples.length][];
+		for (int i = 0; i < tuples.length; i++) {
+			int[] c = new int[tuples[i].length + 1];
+			for (int j = 0; j < tuples[i].length; j++) {
+				c[j + 1] = c[j] + tuples[i][j];
+			}
+			counts[i] = c;
+		}
+		return counts;
+	}
+
+	// Ϊmn10/1Ԫ飬һΪȫ0
+	private static int[][] geneAllowedTuple(int n, int m) {
+		int[][] com = CombineTool.genResult(n, m);
+		int[][] tuples = new int[com.length + 1][m];
+		for (int i = 0; i < com.length; i++) {
+			for (int j = 0; j < com[i].length; j++) {
+				tuples[i + 1][com[i][j]] = 1;
+			}
+		}
+
+		return tuples;
+	}
+}
@@ -0,0 +1,138 @@
+package MyCSP.model.data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ʵĶƸʽһļŶʵÿʵһ¼򣩣
+ * <pre>
+ * int MAGIC, int , int , int 
+ * int[] p, int[] q
+ * ÿࣺint , long λ루iλΪi
+ * </pre>
+ * ¼ֻйأ복޹ءȡʱļڴӳ䣬Ƶٽ
+ */
+public final class BinaryInstanceFormat {
+
+	public static final int MAGIC = 0x43534231; // "CSB1"
+
+	private BinaryInstanceFormat() {
+	}
+
+	public static void write(DataOutput out, CarSequencingInstance instance) throws IOException {
+		int nOptions = instance.getNbOptions();
+		if (nOptions > 64) {
+			throw new UnsupportedOperationException("ERROR: more than 64 options: " + nOptions);
+		}
+		out.writeInt(MAGIC);
+		out.writeInt(instance.getNbCars());
+		out.writeInt(nOptions);
+		out.writeInt(instance.getNbClasses());
+		for (int i = 0; i < nOptions; i++) {
+			out.writeInt(instance.getP(i));
+		}
+		for (int i = 0; i < nOptions; i++) {
+			out.writeInt(instance.getQ(i));
+		}
+		for (int c = 0; c < instance.getNbClasses(); c++) {
+			long mask = 0;
+			for (int i = 0; i < nOptions; i++) {
+				if (instance.has(c, i)) {
+					mask |= 1L << i;
+				}
+			}
+			out.writeInt(instance.getDemand(c));
+			out.writeLong(mask);
+		}
+	}
+
+	public static void write(OutputStream out, List<CarSequencingInstance> instances) throws IOException {
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		for (CarSequencingInstance instance : instances) {
+			write(data, instance);
+		}
+		data.flush();
+	}
+
+	public static void write(Path file, List<CarSequencingInstance> instances) throws IOException {
+		try (OutputStream out = Files.newOutputStream(file)) {
+			write(out, instances);
+		}
+	}
+
+	/**
+	 * @return bufӵǰλÿʼǷһƼ¼ƶλ
+	 */
+	public static boolean isBinary(ByteBuffer buf) {
+		return buf.remaining() >= 4 && buf.getInt(buf.position()) == MAGIC;
+	}
+
+	/**
+	 * bufĵǰλöһ¼λһ¼ͷ
+	 * ͷĿϷ¼ʱ׳UnsupportedOperationException
+	 */
+	public static CarSequencingInstance read(ByteBuffer buf) {
+		int start = buf.position();
+		if (!isBinary(buf)) {
+			throw new UnsupportedOperationException("ERROR: no binary instance at byte " + start);
+		}
+		if (buf.remaining() < 16) {
+			throw new UnsupportedOperationException("ERROR: truncated header at byte " + start);
+		}
+		buf.getInt();
+		int nCars = buf.getInt();
+		int nOptions = buf.getInt();
+		int nClasses = buf.getInt();
+		if (nCars < 0 || nClasses < 0 || nOptions < 0 || nOptions > 64) {
+			throw new UnsupportedOperationException("ERROR: invalid header at byte " + start + ": " + nCars + " cars, "
+					+ nOptions + " options (at most 64), " + nClasses + " classes");
+		}
+		// ಿ֣pqnOptionsintÿһintһlong
+		long length = 8L * nOptions + 12L * nClasses;
+		if (buf.remaining() < length) {
+			throw new UnsupportedOperationException("ERROR: truncated record at byte " + start + ": " + length
+					+ " bytes expected after the header, " + buf.remaining() + " left");
+		}
+		int[] p = new int[nOptions], q = new int[nOptions];
+		for (int i = 0; i < nOptions; i++) {
+			p[i] = buf.getInt();
+		}
+		for (int i = 0; i < nOptions; i++) {
+			q[i] = buf.getInt();
+		}
+		int[] demands = new int[nClasses];
+		int[][] matrix = new int[nClasses][nOptions];
+		for (int c = 0; c < nClasses; c++) {
+			demands[c] = buf.getInt();
+			long mask = buf.getLong();
+			for (int i = 0; i < nOptions; i++) {
+				matrix[c][i] = (int) (mask >>> i) & 1;
+			}
+		}
+		return new CarSequencingInstance(nCars, p, q, demands, matrix);
+	}
+
+	/**
+	 * ڴӳļʵ
+	 */
+	public static List<CarSequencingInstance> readAll(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			List<CarSequencingInstance> instances = new ArrayList<>();
+			while (buf.hasRemaining()) {
+				instances.add(read(buf));
+			}
+			return instances;
+		}
+	}
+}
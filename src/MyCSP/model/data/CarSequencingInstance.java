@@ -0,0 +1,122 @@
+package MyCSP.model.data;
+
+/**
+ * һʵÿԼp/qÿ/
+ * ٸı䣬ڶģͺ֮߳乲getظģͿ޸ġ
+ * 󡢰λڹʱһá
+ */
+public final class CarSequencingInstance {
+
+	private final int nCars, nOptions, nClasses;
+	private final int[] p, q; // ÿqp
+	private final int[] demands; // ÿĳ
+	private final int[][] matrix; // /0/1
+	private final ClassOptions options; // /λ
+	private final int[] optionDemand; // ÿ
+	private final int[][] classesWith; // ÿ
+
+	public CarSequencingInstance(int nCars, int[] p, int[] q, int[] demands, int[][] matrix) {
+		if (p.length != q.length) {
+			throw new UnsupportedOperationException("ERROR: " + p.length + " capacities p but " + q.length + " q");
+		}
+		if (demands.length != matrix.length) {
+			throw new UnsupportedOperationException("ERROR: " + demands.length + " demands but " + matrix.length + " classes");
+		}
+		this.nCars = nCars;
+		this.nOptions = p.length;
+		this.nClasses = demands.length;
+		this.p = p.clone();
+		this.q = q.clone();
+		this.demands = demands.clone();
+		this.matrix = new int[nClasses][];
+		for (int c = 0; c < nClasses; c++) {
+			if (matrix[c].length != nOptions) {
+				throw new UnsupportedOperationException("ERROR: class " + c + " has " + matrix[c].length + " options, expected " + nOptions);
+			}
+			this.matrix[c] = matrix[c].clone();
+		}
+		options = new ClassOptions(this.matrix, nOptions);
+		optionDemand = new int[nOptions];
+		classesWith = new int[nOptions][];
+		for (int i = 0; i < nOptions; i++) {
+			optionDemand[i] = options.demand(i, this.demands);
+			classesWith[i] = options.classesWith(i);
+		}
+	}
+
+	public int getNbCars() {
+		return nCars;
+	}
+
+	public int getNbOptions() {
+		return nOptions;
+	}
+
+	public int getNbClasses() {
+		return nClasses;
+	}
+
+	public int getP(int optnum) {
+		return p[optnum];
+	}
+
+	public int getQ(int optnum) {
+		return q[optnum];
+	}
+
+	public int getDemand(int c) {
+		return demands[c];
+	}
+
+	public boolean has(int c, int optnum) {
+		return options.has(c, optnum);
+	}
+
+	/**
+	 * @return /λ룬ɱ䣬ֱӹ
+	 */
+	public ClassOptions getClassOptions() {
+		return options;
+	}
+
+	/**
+	 * @return Ҫoptnumĳ
+	 */
+	public int getOptionDemand(int optnum) {
+		return optionDemand[optnum];
+	}
+
+	public int[] getOptionDemands() {
+		return optionDemand.clone();
+	}
+
+	/**
+	 * @return optnum
+	 */
+	public int[] getClassesWith(int optnum) {
+		return classesWith[optnum].clone();
+	}
+
+	/**
+	 * @return ÿ{p, q}
+	 */
+	public int[][] getOptfreq() {
+		int[][] optfreq = new int[nOptions][];
+		for (int i = 0; i < nOptions; i++) {
+			optfreq[i] = new int[] { p[i], q[i] };
+		}
+		return optfreq;
+	}
+
+	public int[] getDemands() {
+		return demands.clone();
+	}
+
+	public int[][] getMatrix() {
+		int[][] m = new int[nClasses][];
+		for (int c = 0; c < nClasses; c++) {
+			m[c] = matrix[c].clone();
+		}
+		return m;
+	}
+}
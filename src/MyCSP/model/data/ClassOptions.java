@@ -0,0 +1,139 @@
+package MyCSP.model.data;
+
+/**
+ * λ洢/ÿһlongʾiλΪ1ʾҪi֧64
+ */
+public final class ClassOptions {
+
+	private final long[] masks; // ÿ
+	private final int nOptions;
+
+	public ClassOptions(int[][] matrix, int nOptions) {
+		if (nOptions > 64) {
+			throw new UnsupportedOperationException("ERROR: more than 64 options: " + nOptions);
+		}
+		this.nOptions = nOptions;
+		masks = new long[matrix.length];
+		for (int c = 0; c < matrix.length; c++) {
+			for (int i = 0; i < nOptions; i++) {
+				if (matrix[c][i] == 1) {
+					masks[c] |= 1L << i;
+				}
+			}
+		}
+	}
+
+	public int getNbClasses() {
+		return masks.length;
+	}
+
+	public int getNbOptions() {
+		return nOptions;
+	}
+
+	/**
+	 * @return ciλʾi
+	 */
+	public long mask(int c) {
+		return masks[c];
+	}
+
+	public boolean has(int c, int optnum) {
+		return (masks[c] & (1L << optnum)) != 0;
+	}
+
+	/**
+	 * @return c
+	 */
+	public int weight(int c) {
+		return Long.bitCount(masks[c]);
+	}
+
+	/**
+	 * @return cڰaϵĺ
+	 */
+	public double sum(int c, double[] a) {
+		double w = 0;
+		for (long m = masks[c]; m != 0; m &= m - 1) {
+			w += a[Long.numberOfTrailingZeros(m)];
+		}
+		return w;
+	}
+
+	/**
+	 * @return cڰaϵĺ
+	 */
+	public int sum(int c, int[] a) {
+		int w = 0;
+		for (long m = masks[c]; m != 0; m &= m - 1) {
+			w += a[Long.numberOfTrailingZeros(m)];
+		}
+		return w;
+	}
+
+	/**
+	 * cÿiִ a[i] += delta
+	 */
+	public void add(int c, int[] a, int delta) {
+		for (long m = masks[c]; m != 0; m &= m - 1) {
+			a[Long.numberOfTrailingZeros(m)] += delta;
+		}
+	}
+
+	/**
+	 * @return optnum
+	 */
+	public int demand(int optnum, int[] demands) {
+		int d = 0;
+		long bit = 1L << optnum;
+		for (int c = 0; c < masks.length; c++) {
+			if ((masks[c] & bit) != 0) {
+				d += demands[c];
+			}
+		}
+		return d;
+	}
+
+	/**
+	 * @return cӦ0/1
+	 */
+	public int[] row(int c) {
+		int[] r = new int[nOptions];
+		for (long m = masks[c]; m != 0; m &= m - 1) {
+			r[Long.numberOfTrailingZeros(m)] = 1;
+		}
+		return r;
+	}
+
+	/**
+	 * @return Ҫoptnum
+	 */
+	public int[] classesWith(int optnum) {
+		return classes(optnum, true);
+	}
+
+	/**
+	 * @return Ҫoptnum
+	 */
+	public int[] classesWithout(int optnum) {
+		return classes(optnum, false);
+	}
+
+	private int[] classes(int optnum, boolean with) {
+		long bit = 1L << optnum;
+		int n = 0;
+		for (int c = 0; c < masks.length; c++) {
+			if (((masks[c] & bit) != 0) == with) {
+				n++;
+			}
+		}
+		int[] r = new int[n];
+		n = 0;
+		for (int c = 0; c < masks.length; c++) {
+			if (((masks[c] & bit) != 0) == with) {
+				r[n++] = c;
+			}
+		}
+		return r;
+	}
+}
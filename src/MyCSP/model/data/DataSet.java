@@ -1,6 +1,28 @@
 package MyCSP.model.data;
 
 public class DataSet {
+	/**
+	 * @param name ݼ.ʵ CSPLib.random05MyData.md_m01Data.P4_72
+	 * @return ʵCSPLibʽַ
+	 */
+	public static String source(String name) {
+		int dot = name.indexOf('.');
+		if (dot < 0) {
+			throw new UnsupportedOperationException("ERROR: expected <data set>.<instance>: " + name);
+		}
+		String set = name.substring(0, dot), instance = name.substring(dot + 1);
+		switch (set) {
+		case "Data":
+			return Data.valueOf(instance).source();
+		case "CSPLib":
+			return CSPLib.valueOf(instance).source();
+		case "MyData":
+			return MyData.valueOf(instance).source();
+		default:
+			throw new UnsupportedOperationException("ERROR: unknown data set: " + set);
+		}
+	}
+
 	public enum Data {
 		myPb("10 5 6\n" + "1 2 1 2 1\n" + "2 3 3 5 5\n" + "0 1 1 0 1 1 0\n" + "1 1 0 0 0 1 0\n" + "2 2 0 1 0 0 1\n"
 				+ "3 2 0 1 0 1 0\n" + "4 2 1 0 1 0 0\n" + "5 2 1 1 0 0 0"), P4_72(
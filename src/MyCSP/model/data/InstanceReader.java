@@ -0,0 +1,136 @@
+package MyCSP.model.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ȡCSPLibʽʵ
+ * <pre>
+ *   
+ * ÿp
+ * ÿq
+ * ÿһУ  0/1
+ * </pre>
+ * ֱByteBufferֽڶļڴӳ䣬Scanner
+ */
+public final class InstanceReader {
+
+	// DataSetеַ -> ͬһģͺֻ֮߳һ
+	private static final ConcurrentHashMap<String, CarSequencingInstance> CACHE = new ConcurrentHashMap<>();
+
+	private InstanceReader() {
+	}
+
+	/**
+	 * ȡıƣBinaryInstanceFormatȡһ¼ʽļ
+	 */
+	public static CarSequencingInstance read(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return BinaryInstanceFormat.isBinary(buf) ? BinaryInstanceFormat.read(buf) : parse(buf);
+		}
+	}
+
+	public static CarSequencingInstance read(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] chunk = new byte[8192];
+		for (int n; (n = in.read(chunk)) != -1;) {
+			out.write(chunk, 0, n);
+		}
+		return parse(ByteBuffer.wrap(out.toByteArray()));
+	}
+
+	/**
+	 * ȡļȡʧܻʽʱ׳ļUnsupportedOperationExceptionģ͵ -f ʹ
+	 */
+	public static CarSequencingInstance load(String file) {
+		try {
+			return read(Paths.get(file));
+		} catch (IOException e) {
+			throw new UnsupportedOperationException("ERROR: cannot read " + file, e);
+		} catch (UnsupportedOperationException e) {
+			throw new UnsupportedOperationException("ERROR: cannot read " + file + ": " + e.getMessage().replaceFirst("^ERROR: ", ""), e);
+		}
+	}
+
+	/**
+	 * DataSetеַ沢
+	 */
+	public static CarSequencingInstance cached(String source) {
+		return CACHE.computeIfAbsent(source, InstanceReader::parse);
+	}
+
+	/**
+	 * DataSetеַ
+	 */
+	public static CarSequencingInstance parse(String source) {
+		return parse(ByteBuffer.wrap(source.getBytes(StandardCharsets.US_ASCII)));
+	}
+
+	public static CarSequencingInstance parse(ByteBuffer buf) {
+		int nCars = nextInt(buf);
+		int nOptions = nextInt(buf);
+		int nClasses = nextInt(buf);
+		int[] p = new int[nOptions], q = new int[nOptions];
+		for (int i = 0; i < nOptions; i++) {
+			p[i] = nextInt(buf);
+		}
+		for (int i = 0; i < nOptions; i++) {
+			q[i] = nextInt(buf);
+		}
+		int[] demands = new int[nClasses];
+		int[][] matrix = new int[nClasses][nOptions];
+		for (int c = 0; c < nClasses; c++) {
+			nextInt(buf); // 
+			demands[c] = nextInt(buf);
+			for (int i = 0; i < nOptions; i++) {
+				matrix[c][i] = nextInt(buf);
+			}
+		}
+		return new CarSequencingInstance(nCars, p, q, demands, matrix);
+	}
+
+	private static boolean isSpace(int b) {
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+	}
+
+	private static int nextInt(ByteBuffer buf) {
+		int b;
+		do {
+			if (!buf.hasRemaining()) {
+				throw new UnsupportedOperationException("ERROR: unexpected end of data");
+			}
+			b = buf.get();
+		} while (isSpace(b));
+		boolean neg = b == '-';
+		if (neg && buf.hasRemaining()) {
+			b = buf.get();
+		}
+		if (b < '0' || b > '9') {
+			throw new UnsupportedOperationException("ERROR: not an integer at byte " + (buf.position() - 1));
+		}
+		int v = 0;
+		while (true) {
+			v = v * 10 + (b - '0');
+			if (!buf.hasRemaining()) {
+				break;
+			}
+			b = buf.get();
+			if (b < '0' || b > '9') {
+				if (!isSpace(b)) {
+					throw new UnsupportedOperationException("ERROR: not an integer at byte " + (buf.position() - 1));
+				}
+				break;
+			}
+		}
+		return neg ? -v : v;
+	}
+}
@@ -0,0 +1,58 @@
+package MyCSP.constraint.sequence;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.variables.IntVar;
+import org.junit.Test;
+
+/**
+ * AtMostSeq covers every window, including the last one of the sequence
+ * (the per-window decomposition it replaced stopped one window early).
+ */
+public class AtMostSeqTest {
+
+    // 1 in 2: only the last window {2, 3} holds two ones
+    private static final int[] LAST_WINDOW_FULL = {1, 0, 1, 1};
+
+    private static boolean solve(int[] values, int[] classes, int p, int q) {
+        Model model = new Model();
+        IntVar[] vars = new IntVar[values.length];
+        for (int i = 0; i < values.length; i++) {
+            vars[i] = model.intVar(values[i]);
+        }
+        new AtMostSeq(vars, classes, p, q).post();
+        return model.getSolver().solve();
+    }
+
+    @Test
+    public void testLastWindowRejected() {
+        assertFalse(solve(LAST_WINDOW_FULL, new int[]{1}, 1, 2));
+    }
+
+    @Test
+    public void testLastWindowRejectedOverClasses() {
+        // classes 1 and 2 require the option: 2, 0, 1, 2
+        assertFalse(solve(new int[]{2, 0, 1, 2}, new int[]{1, 2}, 1, 2));
+    }
+
+    @Test
+    public void testFeasibleSequenceAccepted() {
+        assertTrue(solve(new int[]{1, 0, 1, 0}, new int[]{1}, 1, 2));
+        assertTrue(solve(new int[]{2, 0, 1, 0, 0}, new int[]{1, 2}, 2, 3));
+    }
+
+    @Test
+    public void testLastWindowFiltered() {
+        Model model = new Model();
+        IntVar[] vars = new IntVar[4];
+        for (int i = 0; i < 3; i++) {
+            vars[i] = model.intVar(LAST_WINDOW_FULL[i]);
+        }
+        vars[3] = model.intVar("last", 0, 1);
+        new AtMostSeq(vars, 1, 2).post();
+        assertTrue(model.getSolver().solve());
+        assertTrue(vars[3].getValue() == 0);
+    }
+}